@@ -0,0 +1,59 @@
+package dev.oakheart.playerwarpsplus;
+
+import com.olziedev.playerwarps.api.events.warp.PlayerWarpTeleportEvent;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.mockbukkit.mockbukkit.MockBukkit;
+
+import java.util.Map;
+
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * MockBukkit setup shared by the benchmarks and the load test.
+ *
+ * <p>PlayerWarps is a placeholder plugin and its teleport event is a Mockito
+ * stub, so only this plugin's own code runs. Destination preloading is turned
+ * off because MockBukkit worlds don't load chunks asynchronously, and adaptive
+ * quality because the mock server has no real tick times.
+ */
+public final class MockWarps {
+
+    private MockWarps() {
+    }
+
+    /**
+     * Load the plugin on the mocked server (call after {@link MockBukkit#mock()})
+     *
+     * @param config Config values to set on top of the defaults above
+     * @return The enabled plugin, running with the resulting settings
+     */
+    public static PlayerWarpsPlus load(Map<String, Object> config) {
+        MockBukkit.createMockPlugin("PlayerWarps");
+        PlayerWarpsPlus plugin = MockBukkit.load(PlayerWarpsPlus.class);
+        plugin.getConfig().set("countdown.preload.enabled", false);
+        plugin.getConfig().set("adaptive-quality.enabled", false);
+        config.forEach(plugin.getConfig()::set);
+        plugin.saveConfig();
+        plugin.reloadSettings();
+        return plugin;
+    }
+
+    /**
+     * Stub a PlayerWarps teleport event
+     *
+     * @param player      The warping player
+     * @param warpName    The warp's name
+     * @param destination The warp's location
+     * @return The event, as PlayerWarps would fire it
+     */
+    public static PlayerWarpTeleportEvent warpEvent(Player player, String warpName, Location destination) {
+        PlayerWarpTeleportEvent event = mock(PlayerWarpTeleportEvent.class, RETURNS_DEEP_STUBS);
+        when(event.getTeleporter()).thenReturn(player);
+        when(event.getPlayerWarp().getWarpName()).thenReturn(warpName);
+        when(event.getPlayerWarp().getWarpLocation().getLocation()).thenReturn(destination);
+        return event;
+    }
+}
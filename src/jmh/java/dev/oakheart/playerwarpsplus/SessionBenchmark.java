@@ -0,0 +1,99 @@
+package dev.oakheart.playerwarpsplus;
+
+import com.olziedev.playerwarps.api.events.warp.PlayerWarpTeleportEvent;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.ServerMock;
+import org.mockbukkit.mockbukkit.entity.PlayerMock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Map;
+
+/**
+ * Per-event cost of the session guard's move filtering, and of starting and
+ * cancelling a warp session.
+ *
+ * <p>The plugin runs on a MockBukkit server (see {@link MockWarps}), so only
+ * this plugin's own code is measured. Move events are fired through the
+ * server's plugin manager, so they reach the guard the plugin registered itself,
+ * including the dispatch to it. A session stays in its countdown throughout,
+ * which keeps the guard registered.
+ */
+@State(Scope.Benchmark)
+public class SessionBenchmark {
+
+    private ServerMock server;
+    private WarpCommandListener warps;
+
+    private PlayerMock warpingPlayer;
+    private PlayerWarpTeleportEvent warpEvent;
+    private PlayerMoveEvent rotationOnly;
+    private PlayerMoveEvent moveWithoutSession;
+    private PlayerMoveEvent moveDuringCountdown;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        server = MockBukkit.mock();
+        PlayerWarpsPlus plugin = MockWarps.load(Map.of());
+
+        warps = plugin.getWarpCommandListener();
+
+        World world = server.addSimpleWorld("world");
+        Location destination = new Location(world, 100.5, 64, 100.5);
+
+        PlayerMock idlePlayer = server.addPlayer();
+        Location idleLocation = new Location(world, 0.5, 64, 0.5);
+        rotationOnly = new PlayerMoveEvent(idlePlayer, idleLocation, rotated(idleLocation));
+        moveWithoutSession = new PlayerMoveEvent(idlePlayer, idleLocation, idleLocation.clone().add(0.3, 0, 0));
+
+        // A player mid-countdown, which registers the guard; the ticker is never advanced, so the session
+        // stays in that phase
+        PlayerMock countdownPlayer = server.addPlayer();
+        warps.onWarpTeleport(MockWarps.warpEvent(countdownPlayer, "market", destination));
+        Location countdownLocation = countdownPlayer.getLocation();
+        moveDuringCountdown = new PlayerMoveEvent(countdownPlayer, countdownLocation,
+                countdownLocation.clone().add(0.05, 0, 0));
+
+        warpingPlayer = server.addPlayer();
+        warpEvent = MockWarps.warpEvent(warpingPlayer, "spawn", destination);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        MockBukkit.unmock();
+    }
+
+    @Benchmark
+    public void moveRotationOnly() {
+        server.getPluginManager().callEvent(rotationOnly);
+    }
+
+    @Benchmark
+    public void moveWithoutSession() {
+        server.getPluginManager().callEvent(moveWithoutSession);
+    }
+
+    @Benchmark
+    public void moveDuringCountdownBelowThreshold() {
+        server.getPluginManager().callEvent(moveDuringCountdown);
+    }
+
+    @Benchmark
+    public void createAndCancelSession() {
+        warps.onWarpTeleport(warpEvent);
+        warps.cancelCountdown(warpingPlayer, WarpStats.CancelCause.OTHER);
+    }
+
+    private static Location rotated(Location location) {
+        Location rotated = location.clone();
+        rotated.setYaw(location.getYaw() + 15);
+        return rotated;
+    }
+}
@@ -0,0 +1,77 @@
+package dev.oakheart.playerwarpsplus.util;
+
+import net.kyori.adventure.text.Component;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Title formatting, using the default titles from config.yml.
+ *
+ * <p>{@link MessageFormatter#format} is the parse-from-scratch path; the
+ * template benchmarks are what the countdown actually runs. Small caps come
+ * from the {@code <sc>} tag, resolved during the MiniMessage pass, and from
+ * {@link SmallCapsConverter} directly.
+ */
+@State(Scope.Thread)
+public class MessageFormatterBenchmark {
+
+    private static final String COUNTDOWN_TITLE = "<#f9e59d>ᴡᴀʀᴘɪɴɢ ɪɴ %seconds%";
+    private static final String FINAL_SUBTITLE = "<white><sc>%warp%</sc>";
+    private static final String NESTED_TAGS = "<gradient:#7f91fd:#f9e59d><sc>Warping to <bold>%warp%</bold></sc></gradient>";
+
+    @Param({"spawn", "Oakheart Market District"})
+    public String warpName;
+
+    private TitleTemplate countdownTitle;
+    private TitleTemplate finalSubtitle;
+
+    @Setup
+    public void setup() {
+        countdownTitle = TitleTemplate.compile(COUNTDOWN_TITLE);
+        finalSubtitle = TitleTemplate.compile(FINAL_SUBTITLE);
+        MessageFormatter.resetCache(64);
+    }
+
+    @Benchmark
+    public Component formatCountdownTitle() {
+        return MessageFormatter.format(COUNTDOWN_TITLE, warpName, 3);
+    }
+
+    @Benchmark
+    public Component formatSmallCapsTag() {
+        return MessageFormatter.format(FINAL_SUBTITLE, warpName, -1);
+    }
+
+    @Benchmark
+    public Component formatNestedTags() {
+        return MessageFormatter.format(NESTED_TAGS, warpName, -1);
+    }
+
+    @Benchmark
+    public Component renderCountdownTemplate() {
+        return countdownTitle.render(warpName, 3);
+    }
+
+    @Benchmark
+    public Component renderSmallCapsTemplate() {
+        return finalSubtitle.render(warpName, -1);
+    }
+
+    @Benchmark
+    public Component renderCachedFinalSubtitle() {
+        return MessageFormatter.render(finalSubtitle, warpName, -1);
+    }
+
+    @Benchmark
+    public String smallCapsConvert() {
+        return SmallCapsConverter.convert(warpName);
+    }
+
+    @Benchmark
+    public String smallCapsTransform() {
+        return TextTransform.SMALLCAPS.apply(warpName);
+    }
+}
@@ -0,0 +1,197 @@
+package dev.oakheart.playerwarpsplus;
+
+import com.olziedev.playerwarps.api.events.warp.PlayerWarpTeleportEvent;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.ServerMock;
+import org.mockbukkit.mockbukkit.entity.PlayerMock;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Headless load test: runs hundreds of simultaneous warp countdowns on a
+ * MockBukkit server and reports what they cost per tick.
+ *
+ * <p>For each session count, one warp event is fired per simulated player. The
+ * scheduler is then advanced tick by tick until every session has ended. Every
+ * tenth player walks away during the countdown and every tenth takes damage;
+ * everyone else turns their head every tick, which the move guard has to filter.
+ * Measured on the server thread:
+ * <ul>
+ *   <li>CPU time and allocations of each scheduler tick (the session ticker and
+ *       anything it schedules), against the 50 ms tick budget</li>
+ *   <li>CPU time and allocations of the scripted player events</li>
+ *   <li>peak active sessions and leased cameras, and the heap retained per session</li>
+ * </ul>
+ *
+ * <p>Runs on the {@link MockWarps} setup: PlayerWarps is a placeholder plugin,
+ * so the final warp always takes the command fallback, and with adaptive
+ * quality off every run measures full effects.
+ * Numbers are for comparing changes, not absolute server MSPT.
+ *
+ * <p>Usage: {@code ./gradlew loadtest [-Psessions=50,200,500] [-Pzoom=display|bat|fov]}
+ */
+public final class WarpLoadTest {
+
+    private static final int WARMUP_SESSIONS = 50;
+    private static final int TICK_BUDGET_NANOS = 50_000_000;
+    private static final int MOVE_AT_TICK = 30; // Walks away during the countdown
+    private static final int DAMAGE_AT_TICK = 40; // Takes damage during the countdown
+    private static final int EXTRA_TICKS = 400; // Beyond the countdown, before giving up on stuck sessions
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    private record Result(int sessions, int ticks, long[] tickCpuNanos, long totalTickAllocated,
+                          long eventCpuNanos, long eventAllocated, int peakSessions, int peakCameras,
+                          long retainedPerSession, WarpStats stats) {
+    }
+
+    private WarpLoadTest() {
+    }
+
+    public static void main(String[] args) {
+        int[] sessionCounts = args.length == 0 ? new int[]{50, 200, 500}
+                : Arrays.stream(args[0].split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+        String zoomMode = args.length > 1 && !args[1].isBlank() ? args[1] : null;
+
+        System.out.println("Warming up with " + WARMUP_SESSIONS + " sessions...");
+        run(WARMUP_SESSIONS, zoomMode);
+
+        List<Result> results = new ArrayList<>();
+        for (int sessions : sessionCounts) {
+            System.out.println("Running " + sessions + " sessions...");
+            results.add(run(sessions, zoomMode));
+        }
+
+        System.out.println();
+        for (Result result : results) {
+            print(result);
+        }
+    }
+
+    private static Result run(int sessionCount, String zoomMode) {
+        ServerMock server = MockBukkit.mock();
+        try {
+            PlayerWarpsPlus plugin = MockWarps.load(
+                    zoomMode != null ? Map.of("countdown.zoom.mode", zoomMode) : Map.of());
+
+            WarpCommandListener warps = plugin.getWarpCommandListener();
+            World world = server.addSimpleWorld("world");
+            Location destination = new Location(world, 1000.5, 64, 1000.5);
+
+            List<PlayerMock> players = new ArrayList<>(sessionCount);
+            List<PlayerWarpTeleportEvent> events = new ArrayList<>(sessionCount);
+            for (int i = 0; i < sessionCount; i++) {
+                PlayerMock player = server.addPlayer();
+                player.teleport(new Location(world, (i % 32) * 4 + 0.5, 64, (i / 32) * 4 + 0.5));
+                players.add(player);
+                events.add(MockWarps.warpEvent(player, "warp" + (i % 8), destination));
+            }
+
+            long heapBefore = usedHeapAfterGc();
+
+            long eventCpu = 0;
+            long eventAllocated = 0;
+            long cpuStart = THREADS.getCurrentThreadCpuTime();
+            long allocatedStart = THREADS.getCurrentThreadAllocatedBytes();
+            for (PlayerWarpTeleportEvent event : events) {
+                warps.onWarpTeleport(event);
+            }
+            eventCpu += THREADS.getCurrentThreadCpuTime() - cpuStart;
+            eventAllocated += THREADS.getCurrentThreadAllocatedBytes() - allocatedStart;
+
+            long retainedPerSession = Math.max(0, usedHeapAfterGc() - heapBefore) / Math.max(1, sessionCount);
+
+            int maxTicks = plugin.getSettings().getDuration() * 20 + EXTRA_TICKS;
+            long[] tickCpu = new long[maxTicks];
+            long totalTickAllocated = 0;
+            int peakSessions = warps.getTicker().getActiveCount();
+            int peakCameras = 0;
+            int tick = 0;
+            while (tick < maxTicks && warps.getTicker().getActiveCount() > 0) {
+                cpuStart = THREADS.getCurrentThreadCpuTime();
+                allocatedStart = THREADS.getCurrentThreadAllocatedBytes();
+                simulatePlayers(players, tick);
+                eventCpu += THREADS.getCurrentThreadCpuTime() - cpuStart;
+                eventAllocated += THREADS.getCurrentThreadAllocatedBytes() - allocatedStart;
+
+                cpuStart = THREADS.getCurrentThreadCpuTime();
+                allocatedStart = THREADS.getCurrentThreadAllocatedBytes();
+                server.getScheduler().performOneTick();
+                tickCpu[tick] = THREADS.getCurrentThreadCpuTime() - cpuStart;
+                totalTickAllocated += THREADS.getCurrentThreadAllocatedBytes() - allocatedStart;
+
+                peakSessions = Math.max(peakSessions, warps.getTicker().getActiveCount());
+                peakCameras = Math.max(peakCameras, warps.getCameraPool().getLeasedCount());
+                tick++;
+            }
+
+            return new Result(sessionCount, tick, Arrays.copyOf(tickCpu, tick), totalTickAllocated,
+                    eventCpu, eventAllocated, peakSessions, peakCameras, retainedPerSession, warps.getStats());
+        } finally {
+            MockBukkit.unmock();
+        }
+    }
+
+    private static void simulatePlayers(List<PlayerMock> players, int tick) {
+        for (int i = 0; i < players.size(); i++) {
+            PlayerMock player = players.get(i);
+            if (tick == MOVE_AT_TICK && i % 10 == 0) {
+                player.simulatePlayerMove(player.getLocation().add(1, 0, 0));
+            } else if (tick == DAMAGE_AT_TICK && i % 10 == 1) {
+                player.damage(1.0);
+            } else {
+                Location look = player.getLocation();
+                look.setYaw(look.getYaw() + 5);
+                player.simulatePlayerMove(look);
+            }
+        }
+    }
+
+    private static long usedHeapAfterGc() {
+        System.gc();
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+
+    private static void print(Result result) {
+        long[] sorted = result.tickCpuNanos().clone();
+        Arrays.sort(sorted);
+        long total = Arrays.stream(sorted).sum();
+        int ticks = Math.max(1, result.ticks());
+        WarpStats stats = result.stats();
+
+        System.out.printf(Locale.ROOT, "== %d sessions, %d ticks ==%n", result.sessions(), result.ticks());
+        System.out.printf(Locale.ROOT, "  tick CPU:   mean %.3f ms, p50 %.3f ms, p99 %.3f ms, max %.3f ms (%.1f%% of budget at max)%n",
+                millis(total / ticks), millis(percentile(sorted, 50)), millis(percentile(sorted, 99)),
+                millis(percentile(sorted, 100)), 100.0 * percentile(sorted, 100) / TICK_BUDGET_NANOS);
+        System.out.printf(Locale.ROOT, "  tick alloc: %.1f KB/tick%n", result.totalTickAllocated() / (double) ticks / 1024);
+        System.out.printf(Locale.ROOT, "  events:     %.3f ms CPU, %.1f KB allocated in total%n",
+                millis(result.eventCpuNanos()), result.eventAllocated() / 1024.0);
+        System.out.printf(Locale.ROOT, "  peak:       %d sessions, %d cameras leased, ~%d bytes retained per session%n",
+                result.peakSessions(), result.peakCameras(), result.retainedPerSession());
+        System.out.printf(Locale.ROOT, "  outcome:    %d warped (%d command fallbacks), cancelled: move %d, damage %d, teleport %d, other %d%n",
+                stats.getWarpCount(), stats.getCommandFallbackCount(),
+                stats.getCancellations(WarpStats.CancelCause.MOVE), stats.getCancellations(WarpStats.CancelCause.DAMAGE),
+                stats.getCancellations(WarpStats.CancelCause.TELEPORT), stats.getCancellations(WarpStats.CancelCause.OTHER));
+        System.out.println();
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.ceil(sorted.length * percentile / 100.0) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
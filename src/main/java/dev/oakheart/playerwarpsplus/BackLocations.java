@@ -0,0 +1,128 @@
+package dev.oakheart.playerwarpsplus;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginManager;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+
+/**
+ * Tells /back plugins that a warp started on the ground, not in mid-air where
+ * the zoom ended.
+ *
+ * <p>The player is no longer teleported back to the ground before the warp, so
+ * two things stand in for that hop:
+ * <ul>
+ *   <li>While a warp teleport is in progress, its teleport event's {@code from}
+ *       is rewritten to the ground location (see {@link SessionGuardListener}),
+ *       for plugins that record /back from teleport events.</li>
+ *   <li>Essentials and CMI keep their own last location, which is set directly
+ *       once the player has arrived, so their own teleport listeners can't
+ *       overwrite it. They are called through reflection, so neither is a
+ *       dependency.</li>
+ * </ul>
+ *
+ * <p>An integration that fails (e.g. after an incompatible update) is logged
+ * once and dropped.
+ */
+final class BackLocations {
+
+    /**
+     * A plugin keeping last locations per user: {@code userLookup(owner, player).setter(location)}
+     */
+    private static final class Integration {
+        final String name;
+        final Object owner;
+        final Method userLookup;
+        final String setterName;
+        volatile Method setter; // Resolved on first use from the user object's class
+
+        Integration(String name, Object owner, Method userLookup, String setterName) {
+            this.name = name;
+            this.owner = owner;
+            this.userLookup = userLookup;
+            this.setterName = setterName;
+        }
+
+        void record(Player player, Location location) throws ReflectiveOperationException {
+            Object user = userLookup.invoke(owner, player);
+            if (user == null) return;
+
+            Method method = setter;
+            if (method == null) {
+                method = user.getClass().getMethod(setterName, Location.class);
+                setter = method;
+            }
+            method.invoke(user, location);
+        }
+    }
+
+    private final PlayerWarpsPlus plugin;
+    private final List<Integration> integrations = new CopyOnWriteArrayList<>();
+
+    private BackLocations(PlayerWarpsPlus plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Look for supported /back plugins
+     *
+     * @return The recorder for every plugin found
+     */
+    static BackLocations detect(PlayerWarpsPlus plugin) {
+        BackLocations backLocations = new BackLocations(plugin);
+        PluginManager pluginManager = plugin.getServer().getPluginManager();
+
+        Plugin essentials = pluginManager.getPlugin("Essentials");
+        if (essentials != null) {
+            try {
+                backLocations.add(new Integration("Essentials", essentials,
+                        essentials.getClass().getMethod("getUser", Player.class), "setLastLocation"));
+            } catch (ReflectiveOperationException e) {
+                plugin.getLogger().warning("Unsupported Essentials version, /back will not be updated by warps: " + e);
+            }
+        }
+
+        Plugin cmi = pluginManager.getPlugin("CMI");
+        if (cmi != null) {
+            try {
+                // Soft-depended on, so CMI is enabled and has its player manager by now
+                Object playerManager = cmi.getClass().getMethod("getPlayerManager").invoke(cmi);
+                if (playerManager != null) {
+                    backLocations.add(new Integration("CMI", playerManager,
+                            playerManager.getClass().getMethod("getUser", Player.class), "setLastTeleportLocation"));
+                }
+            } catch (ReflectiveOperationException e) {
+                plugin.getLogger().warning("Unsupported CMI version, /back will not be updated by warps: " + e);
+            }
+        }
+        return backLocations;
+    }
+
+    /**
+     * Set a player's /back location in every supported plugin
+     *
+     * @param player   The player who warped
+     * @param location Where the warp started
+     */
+    void record(Player player, Location location) {
+        for (Integration integration : integrations) {
+            try {
+                integration.record(player, location);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                integrations.remove(integration);
+                plugin.getLogger().log(Level.WARNING, "Failed to set the " + integration.name
+                        + " /back location, no longer updating it", e);
+            }
+        }
+    }
+
+    private void add(Integration integration) {
+        integrations.add(integration);
+        plugin.getLogger().info("Recording warp /back locations in " + integration.name);
+    }
+}
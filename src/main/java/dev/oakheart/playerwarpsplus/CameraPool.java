@@ -0,0 +1,421 @@
+package dev.oakheart.playerwarpsplus;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.NamespacedKey;
+import org.bukkit.World;
+import org.bukkit.entity.Bat;
+import org.bukkit.entity.Display;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.ItemDisplay;
+import org.bukkit.entity.Player;
+import org.bukkit.persistence.PersistentDataType;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-world pool of camera entities that are reused between warps.
+ *
+ * <p>A camera is leased to a session when its zoom starts and given back when
+ * the session is done with it. Returned cameras are ejected, hidden from their
+ * last rider and parked where they are (invisible, AI-less, non-persistent)
+ * until the next warp in the same world using the same kind of camera (a bat or
+ * a display entity, see {@link ZoomPath.Mode}). That warp only moves the camera
+ * rather than adding a new entity to the world. If a chunk unload discards a
+ * parked camera, the next lease skips it.
+ *
+ * <p>At most {@code camera-pool.max-idle} cameras are parked per world. Extra
+ * returns are removed, and parked cameras idle for longer than
+ * {@code camera-pool.idle-timeout} are evicted by {@link #maintain}. That same
+ * periodic pass also finds leaked leases: cameras whose session has ended or
+ * whose rider has dismounted. Only leased cameras are inspected, never the
+ * whole session map. The maintenance task only runs while the pool holds
+ * cameras, so a server that never spawns one (FOV zoom mode) has no timer.
+ *
+ * <p>Every camera carries a {@link #isCamera marker} in its persistent data, so
+ * {@link CameraReaper} can recognise one from entity events alone: a camera
+ * whose rider got off or that left the world is dropped from the pool as soon
+ * as it happens, rather than on the next maintenance pass.
+ *
+ * <p>On Folia, cameras cannot be parked: a parked camera belongs to whichever
+ * region it was left in, and the next lease may be running on another one. So
+ * every lease spawns a camera and every release removes it. The maintenance
+ * pass runs on the global region scheduler there; it can only look at the
+ * lease bookkeeping, and hands the removal of a leaked camera to the camera's
+ * own scheduler. Leases and counters are thread-safe for this reason; the idle
+ * pool itself is only used on Paper's main thread.
+ */
+final class CameraPool {
+
+    private static final int MAX_LEASE_TICKS = 600; // Longer than any zoom + black screen + preload hold
+
+    private record PoolKey(UUID worldId, ZoomPath.Mode mode) {
+    }
+
+    private record Parked(Entity camera, int parkedAtTick) {
+    }
+
+    private record Lease(Entity camera, WarpSession session, int leasedAtTick) {
+    }
+
+    private final PlayerWarpsPlus plugin;
+    private final CountdownTicker ticker;
+    private final NamespacedKey cameraKey;
+    private final Map<PoolKey, ArrayDeque<Parked>> idle = new HashMap<>();
+    private final Map<UUID, Lease> leases = new ConcurrentHashMap<>(); // Keyed by camera entity UUID
+    private final AtomicInteger highWaterMark = new AtomicInteger(); // Most cameras leased at once
+    private final LongAdder spawned = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+    private final LongAdder leaked = new LongAdder();
+
+    private ScheduledTask maintenanceTask; // Guarded by this
+
+    CameraPool(PlayerWarpsPlus plugin, CountdownTicker ticker) {
+        this.plugin = plugin;
+        this.ticker = ticker;
+        this.cameraKey = new NamespacedKey(plugin, "camera");
+    }
+
+    /**
+     * Lease a camera for a session, reusing a parked one in the player's world
+     * if there is one
+     *
+     * @param session  The session the camera is for
+     * @param player   The rider; the only player the camera is shown to
+     * @param location Where the camera should be
+     * @param mode     The kind of camera to lease
+     * @return The leased camera
+     */
+    Entity lease(WarpSession session, Player player, Location location, ZoomPath.Mode mode) {
+        Entity camera = Schedulers.FOLIA ? null : pollParked(new PoolKey(player.getWorld().getUID(), mode));
+        if (camera instanceof Display display) {
+            // Reposition instantly rather than interpolating from where it was parked
+            display.setTeleportDuration(0);
+        }
+
+        if (camera != null && camera.teleport(location)) {
+            reused.increment();
+        } else {
+            if (camera != null) {
+                camera.remove();
+            }
+            camera = spawn(player.getWorld(), location, mode);
+            spawned.increment();
+        }
+
+        player.showEntity(plugin, camera);
+        leases.put(camera.getUniqueId(), new Lease(camera, session, Bukkit.getCurrentTick()));
+        highWaterMark.accumulateAndGet(leases.size(), Math::max);
+        startMaintenance();
+        return camera;
+    }
+
+    /**
+     * Give a leased camera back to the pool
+     *
+     * @param camera The camera
+     * @param rider  The player who was riding it, or null if they are gone
+     */
+    void release(Entity camera, Player rider) {
+        leases.remove(camera.getUniqueId());
+        if (!camera.isValid()) return;
+
+        camera.eject();
+        if (rider != null) {
+            rider.hideEntity(plugin, camera);
+        }
+
+        if (Schedulers.FOLIA) {
+            camera.remove();
+            return;
+        }
+
+        ZoomPath.Mode mode = camera instanceof Display ? ZoomPath.Mode.DISPLAY : ZoomPath.Mode.BAT;
+        PoolKey key = new PoolKey(camera.getWorld().getUID(), mode);
+        ArrayDeque<Parked> parked = idle.computeIfAbsent(key, k -> new ArrayDeque<>());
+        if (parked.size() < plugin.getSettings().getCameraPoolMaxIdle()) {
+            parked.push(new Parked(camera, Bukkit.getCurrentTick()));
+        } else {
+            camera.remove();
+        }
+    }
+
+    /**
+     * Reclaim leaked leases and evict cameras that have been parked too long
+     * (runs periodically while the pool holds any cameras)
+     */
+    void maintain() {
+        if (Schedulers.FOLIA) {
+            maintainLeases();
+            return;
+        }
+
+        int now = Bukkit.getCurrentTick();
+        int leakedNow = 0;
+        Iterator<Map.Entry<UUID, Lease>> leaseIterator = leases.entrySet().iterator();
+        while (leaseIterator.hasNext()) {
+            Lease lease = leaseIterator.next().getValue();
+            WarpSession session = lease.session();
+            Entity camera = lease.camera();
+
+            // The session ended without returning its camera, the rider got off, or it was never returned
+            boolean orphaned = ticker.get(session.playerId) != session || session.camera != camera
+                    || !camera.isValid() || camera.getPassengers().isEmpty()
+                    || now - lease.leasedAtTick() > MAX_LEASE_TICKS;
+            if (orphaned) {
+                leaseIterator.remove();
+                if (camera.isValid()) {
+                    camera.remove();
+                }
+                if (session.camera == camera) {
+                    session.camera = null;
+                }
+                leakedNow++;
+            }
+        }
+        leaked.add(leakedNow);
+
+        int evicted = 0;
+        int oldestAllowed = now - plugin.getSettings().getCameraPoolIdleTimeout();
+        for (ArrayDeque<Parked> parked : idle.values()) {
+            // Most recently parked cameras are at the head, so the stale ones are at the tail
+            while (!parked.isEmpty()
+                    && (parked.peekLast().parkedAtTick() < oldestAllowed || !parked.peekLast().camera().isValid())) {
+                Entity camera = parked.pollLast().camera();
+                if (camera.isValid()) {
+                    camera.remove();
+                }
+                evicted++;
+            }
+        }
+        idle.values().removeIf(ArrayDeque::isEmpty);
+
+        stopMaintenanceIfEmpty();
+
+        if ((leakedNow > 0 || evicted > 0) && plugin.getSettings().isDebug()) {
+            plugin.getLogger().info("Camera pool: reclaimed " + leakedNow + " leaked, evicted " + evicted + " idle camera(s)");
+        }
+    }
+
+    /**
+     * Folia maintenance pass, run on the global region. Camera entities belong
+     * to other regions, so only the lease itself is checked here (session ended,
+     * or held for too long) and the camera is removed on its own scheduler.
+     */
+    private void maintainLeases() {
+        int now = Bukkit.getCurrentTick();
+        int leakedNow = 0;
+        for (Map.Entry<UUID, Lease> entry : leases.entrySet()) {
+            Lease lease = entry.getValue();
+            WarpSession session = lease.session();
+            if (ticker.get(session.playerId) == session && now - lease.leasedAtTick() <= MAX_LEASE_TICKS) continue;
+
+            if (leases.remove(entry.getKey(), lease)) {
+                Entity camera = lease.camera();
+                camera.getScheduler().execute(plugin, () -> {
+                    camera.eject();
+                    camera.remove();
+                }, null, 1L);
+                leakedNow++;
+            }
+        }
+        leaked.add(leakedNow);
+        stopMaintenanceIfEmpty();
+
+        if (leakedNow > 0 && plugin.getSettings().isDebug()) {
+            plugin.getLogger().info("Camera pool: reclaimed " + leakedNow + " leaked camera(s)");
+        }
+    }
+
+    /**
+     * Check whether an entity is a camera spawned by this plugin, leased or not
+     *
+     * @param entity The entity
+     * @return true if it carries the camera marker
+     */
+    boolean isCamera(Entity entity) {
+        // Cheap type check first; these events fire for every entity on the server
+        return (entity instanceof Bat || entity instanceof ItemDisplay)
+                && entity.getPersistentDataContainer().has(cameraKey);
+    }
+
+    /**
+     * @param camera A camera entity
+     * @return The session the camera is leased to, or null if it isn't leased
+     */
+    WarpSession getLeaseHolder(Entity camera) {
+        Lease lease = leases.get(camera.getUniqueId());
+        return lease != null ? lease.session() : null;
+    }
+
+    /**
+     * Take a leased camera back without its session's help (its rider got off
+     * outside of a release) and remove it. Does nothing if it isn't leased.
+     *
+     * @param camera The camera
+     */
+    void reclaim(Entity camera) {
+        Lease lease = leases.remove(camera.getUniqueId());
+        if (lease == null) return;
+
+        if (lease.session().camera == camera) {
+            lease.session().camera = null;
+        }
+        leaked.increment();
+        // Not during the dismount itself; the server is still detaching the rider
+        Schedulers.runLater(plugin, camera, camera::remove, 1L);
+        stopMaintenanceIfEmpty();
+    }
+
+    /**
+     * Drop every reference to a camera that has been removed from its world
+     * (chunk unload, a kill command, another plugin)
+     *
+     * @param camera The removed camera
+     */
+    void forget(Entity camera) {
+        Lease lease = leases.remove(camera.getUniqueId());
+        if (lease != null) {
+            if (lease.session().camera == camera) {
+                lease.session().camera = null;
+            }
+            leaked.increment();
+        } else if (!Schedulers.FOLIA) {
+            ZoomPath.Mode mode = camera instanceof Display ? ZoomPath.Mode.DISPLAY : ZoomPath.Mode.BAT;
+            PoolKey key = new PoolKey(camera.getWorld().getUID(), mode);
+            ArrayDeque<Parked> parked = idle.get(key);
+            if (parked != null && parked.removeIf(entry -> entry.camera() == camera) && parked.isEmpty()) {
+                idle.remove(key);
+            }
+        }
+        stopMaintenanceIfEmpty();
+    }
+
+    private synchronized void startMaintenance() {
+        if (maintenanceTask != null) return;
+        long interval = plugin.getSettings().getBatCleanupInterval();
+        maintenanceTask = Bukkit.getGlobalRegionScheduler().runAtFixedRate(plugin, task -> maintain(), interval, interval);
+    }
+
+    private synchronized void stopMaintenanceIfEmpty() {
+        if (leases.isEmpty() && idle.isEmpty() && maintenanceTask != null) {
+            // Nothing left to look after - the next lease starts the task again
+            maintenanceTask.cancel();
+            maintenanceTask = null;
+        }
+    }
+
+    /**
+     * Remove every pooled and leased camera
+     */
+    void shutdown() {
+        synchronized (this) {
+            if (maintenanceTask != null) {
+                maintenanceTask.cancel();
+                maintenanceTask = null;
+            }
+        }
+
+        // Empty the bookkeeping first: removing a camera fires events that call back into forget
+        List<ArrayDeque<Parked>> parkedCameras = new ArrayList<>(idle.values());
+        idle.clear();
+        List<Lease> leased = new ArrayList<>(leases.values());
+        leases.clear();
+
+        for (ArrayDeque<Parked> parked : parkedCameras) {
+            for (Parked entry : parked) {
+                if (entry.camera().isValid()) {
+                    entry.camera().remove();
+                }
+            }
+        }
+
+        for (Lease lease : leased) {
+            Entity camera = lease.camera();
+            // On Folia other regions' entities can't be touched here; cameras are non-persistent, so a restart drops them
+            if (!Schedulers.FOLIA && camera.isValid()) {
+                camera.eject();
+                camera.remove();
+            }
+        }
+    }
+
+    int getIdleCount() {
+        int count = 0;
+        for (ArrayDeque<Parked> parked : idle.values()) {
+            count += parked.size();
+        }
+        return count;
+    }
+
+    int getLeasedCount() {
+        return leases.size();
+    }
+
+    int getHighWaterMark() {
+        return highWaterMark.get();
+    }
+
+    long getSpawnedCount() {
+        return spawned.sum();
+    }
+
+    long getReusedCount() {
+        return reused.sum();
+    }
+
+    long getLeakedCount() {
+        return leaked.sum();
+    }
+
+    private Entity pollParked(PoolKey key) {
+        ArrayDeque<Parked> parked = idle.get(key);
+        while (parked != null && !parked.isEmpty()) {
+            Entity camera = parked.pop().camera();
+            // Parked cameras are non-persistent, so a chunk unload may have discarded them
+            if (camera.isValid()) {
+                return camera;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Spawn a new camera. It is fully configured before it is added to the world,
+     * so its spawn packet already carries the final metadata, and it is hidden
+     * from everyone until shown to a rider. Cameras are never saved with their
+     * chunk and carry the camera marker.
+     */
+    private Entity spawn(World world, Location location, ZoomPath.Mode mode) {
+        if (mode == ZoomPath.Mode.DISPLAY) {
+            // An item display without an item renders nothing
+            return world.spawn(location, ItemDisplay.class, camera -> {
+                camera.setVisibleByDefault(false);
+                camera.setPersistent(false);
+                camera.getPersistentDataContainer().set(cameraKey, PersistentDataType.BOOLEAN, true);
+            });
+        }
+
+        return world.spawn(location, Bat.class, camera -> {
+            camera.setVisibleByDefault(false);
+            camera.setPersistent(false);
+            camera.getPersistentDataContainer().set(cameraKey, PersistentDataType.BOOLEAN, true);
+            camera.setInvisible(true);
+            camera.setInvulnerable(true);
+            camera.setSilent(true);
+            camera.setAI(false);
+            camera.setGravity(false);
+            camera.setAwake(true);
+        });
+    }
+}
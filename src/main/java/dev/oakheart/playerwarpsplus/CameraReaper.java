@@ -0,0 +1,87 @@
+package dev.oakheart.playerwarpsplus;
+
+import com.destroystokyo.paper.event.entity.EntityRemoveFromWorldEvent;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityDismountEvent;
+import org.bukkit.event.world.EntitiesLoadEvent;
+
+/**
+ * Finds orphaned camera entities as soon as the server reports them, instead
+ * of waiting for the camera pool's next maintenance pass.
+ *
+ * <ul>
+ *   <li>Cameras are never saved with their chunk, so a marked camera loaded from
+ *       disk is a leftover (e.g. from an older version or a hard stop) and is
+ *       removed straight away.</li>
+ *   <li>A rider getting off a leased camera outside of a release is kept on it
+ *       while the zoom is still running; otherwise the camera is reclaimed.</li>
+ *   <li>A camera leaving its world is dropped from the pool.</li>
+ * </ul>
+ *
+ * <p>Registered for the plugin's lifetime, since leftovers can turn up whenever
+ * a chunk loads. Each handler rejects other entities on a type check first.
+ */
+final class CameraReaper implements Listener {
+
+    private final PlayerWarpsPlus plugin;
+    private final CameraPool pool;
+    private final CountdownTicker ticker;
+
+    CameraReaper(PlayerWarpsPlus plugin, CameraPool pool, CountdownTicker ticker) {
+        this.plugin = plugin;
+        this.pool = pool;
+        this.ticker = ticker;
+    }
+
+    @EventHandler
+    public void onEntitiesLoad(EntitiesLoadEvent event) {
+        int removed = 0;
+        for (Entity entity : event.getEntities()) {
+            // A live camera is never saved, so one loaded from disk can't be in the pool
+            if (pool.isCamera(entity)) {
+                entity.remove();
+                removed++;
+            }
+        }
+
+        if (removed > 0 && plugin.getSettings().isDebug()) {
+            plugin.getLogger().info("Removed " + removed + " orphaned camera(s) from chunk "
+                    + event.getChunk().getX() + ", " + event.getChunk().getZ() + " in " + event.getWorld().getName());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onEntityDismount(EntityDismountEvent event) {
+        Entity camera = event.getDismounted();
+        if (!pool.isCamera(camera)) return;
+
+        // Released cameras are no longer leased when they eject their rider
+        WarpSession session = pool.getLeaseHolder(camera);
+        if (session == null) return;
+
+        boolean zooming = ticker.get(session.playerId) == session && session.camera == camera
+                && session.phase == WarpSession.Phase.TRANSITION
+                && event.getEntity() instanceof Player rider && rider.getUniqueId().equals(session.playerId);
+        if (zooming && event.isCancellable()) {
+            // Sneaking off mid-zoom would leave the player in mid-air
+            event.setCancelled(true);
+            return;
+        }
+
+        pool.reclaim(camera);
+        if (session.settings.isDebug()) {
+            plugin.getLogger().info("Reclaimed camera after its rider dismounted outside of a release");
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntityRemove(EntityRemoveFromWorldEvent event) {
+        if (pool.isCamera(event.getEntity())) {
+            pool.forget(event.getEntity());
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package dev.oakheart.playerwarpsplus;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+/**
+ * Holds every active {@link WarpSession} and advances them all from a single
+ * repeating task.
+ *
+ * <p>Once per tick each session is handed to a {@link Stepper}, which runs
+ * whatever steps (titles, effects, zoom, teleport) fall on that session's
+ * current tick, and then a pass-end callback runs (used to send the titles
+ * batched during the pass). A warp therefore never needs its own scheduled
+ * tasks, and this is the only place sessions are stored.
+ *
+ * <p>The underlying Bukkit task is only started when the first session is added
+ * and is cancelled again once the last one finishes, so the plugin holds at most
+ * one scheduler entry no matter how many players are mid-countdown. The
+ * {@link SessionGuardListener} follows the same lifecycle.
+ *
+ * <p>On Folia there is no single thread that may touch every player, so each
+ * session is instead advanced by a fixed-rate task on its player's own
+ * {@link org.bukkit.entity.Entity#getScheduler() entity scheduler}. The task is
+ * retired with the player, which ends the session. The guard listener then
+ * stays registered once started, since sessions start and end concurrently on
+ * different region threads.
+ */
+public class CountdownTicker implements Runnable {
+
+    /**
+     * Advances a single session by one tick
+     */
+    @FunctionalInterface
+    public interface Stepper {
+
+        /**
+         * Run whatever steps of the session are due on its current tick
+         *
+         * @param session The session to advance
+         * @return true once the session has finished and should be dropped
+         */
+        boolean advance(WarpSession session);
+    }
+
+    private final PlayerWarpsPlus plugin;
+    private final Stepper stepper;
+    private final Runnable passEnd;
+    private final SessionGuardListener guard;
+    private final Map<UUID, WarpSession> sessions = new ConcurrentHashMap<>();
+    private BukkitTask task;
+
+    CountdownTicker(PlayerWarpsPlus plugin, Stepper stepper, Runnable passEnd, SessionGuardListener guard) {
+        this.plugin = plugin;
+        this.stepper = stepper;
+        this.passEnd = passEnd;
+        this.guard = guard;
+    }
+
+    /**
+     * Start advancing a session, replacing any existing session for the same player
+     *
+     * @param session The session to advance each tick
+     */
+    public void start(WarpSession session) {
+        WarpSession previous = sessions.put(session.playerId, session);
+        if (previous != null) {
+            cancelTask(previous);
+        }
+
+        if (Schedulers.FOLIA) {
+            guard.register();
+            Player player = Bukkit.getPlayer(session.playerId);
+            ScheduledTask sessionTask = player == null ? null : player.getScheduler().runAtFixedRate(plugin,
+                    scheduled -> advance(session), () -> sessions.remove(session.playerId, session), 1L, 1L);
+            if (sessionTask == null) {
+                // The player is already gone
+                sessions.remove(session.playerId, session);
+            }
+            session.task = sessionTask;
+            return;
+        }
+
+        if (task == null) {
+            guard.register();
+            task = Bukkit.getScheduler().runTaskTimer(plugin, this, 0L, 1L);
+        }
+    }
+
+    /**
+     * Stop advancing a player's session
+     *
+     * @param uuid The player
+     * @return The session that was active for the player, or null if there was none
+     */
+    public WarpSession stop(UUID uuid) {
+        WarpSession session = sessions.remove(uuid);
+        if (session != null) {
+            cancelTask(session);
+        }
+        return session;
+    }
+
+    /**
+     * Get a player's active session
+     *
+     * @param uuid The player
+     * @return The session, or null if the player is not warping
+     */
+    public WarpSession get(UUID uuid) {
+        return sessions.get(uuid);
+    }
+
+    /**
+     * @return A live view of all active sessions
+     */
+    public Collection<WarpSession> getSessions() {
+        return sessions.values();
+    }
+
+    /**
+     * @return Number of sessions currently being advanced
+     */
+    public int getActiveCount() {
+        return sessions.size();
+    }
+
+    @Override
+    public void run() {
+        for (WarpSession session : sessions.values()) {
+            advance(session);
+        }
+        try {
+            passEnd.run();
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.SEVERE, "Error finishing warp session tick", e);
+        }
+
+        if (sessions.isEmpty() && task != null) {
+            task.cancel();
+            task = null;
+            guard.unregister();
+        }
+    }
+
+    /**
+     * Stop the ticker and drop all sessions
+     */
+    public void shutdown() {
+        for (WarpSession session : sessions.values()) {
+            cancelTask(session);
+        }
+        sessions.clear();
+
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        guard.unregister();
+    }
+
+    private void advance(WarpSession session) {
+        boolean finished;
+        try {
+            finished = stepper.advance(session);
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.SEVERE, "Error advancing warp session for " + session.playerName, e);
+            finished = true;
+        }
+
+        if (finished) {
+            // Only remove this exact session - a step may have replaced it with a new one
+            if (sessions.remove(session.playerId, session)) {
+                cancelTask(session);
+            }
+        }
+    }
+
+    private static void cancelTask(WarpSession session) {
+        ScheduledTask sessionTask = session.task;
+        if (sessionTask != null) {
+            sessionTask.cancel();
+            session.task = null;
+        }
+    }
+}
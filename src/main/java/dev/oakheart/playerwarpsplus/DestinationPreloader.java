@@ -0,0 +1,210 @@
+package dev.oakheart.playerwarpsplus;
+
+import dev.oakheart.playerwarpsplus.util.LruCache;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Loads warp destinations in the background while the countdown runs.
+ *
+ * <p>As soon as a session is created, the chunks around its destination are
+ * requested through Paper's async chunk API. Once they have loaded, a plugin
+ * chunk ticket keeps them loaded until the session releases them (after the
+ * teleport, or when the warp is cancelled), and the session is marked ready so
+ * its teleport can go ahead.
+ *
+ * <p>Sessions warping to the same place while its chunks are still loading
+ * share a single load: the first session requests the chunks and the others
+ * wait on the same future. Plugin chunk tickets are not reference counted by
+ * the server, so tickets are counted here too: several sessions warping to the
+ * same place share one ticket per chunk. Time from request to ready is
+ * recorded per warp, for the most recently preloaded warps only.
+ *
+ * <p>Paper completes async chunk futures on the main thread; Folia completes
+ * them on the region that owns the chunk. Ticket changes are therefore always
+ * made on the chunk's own thread (see {@link Schedulers#runAtChunk}), the counts
+ * are kept in a concurrent map, and a session's preload state is guarded by the
+ * session itself.
+ */
+final class DestinationPreloader {
+
+    private static final int MAX_LATENCY_WARPS = 256; // Warps with latency kept, so deleted warps age out
+
+    /**
+     * A chunk held by a session
+     */
+    record ChunkRef(UUID worldId, int x, int z) {
+    }
+
+    /**
+     * The chunks around a destination
+     */
+    private record Area(UUID worldId, int centerX, int centerZ, int radius) {
+    }
+
+    /**
+     * An in-flight load of an area, shared by every session warping there
+     */
+    private record PendingLoad(List<ChunkRef> chunks, CompletableFuture<Void> future) {
+    }
+
+    /**
+     * Chunk-ready latency for a single warp
+     */
+    static final class Latency {
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+
+        synchronized void record(long nanos) {
+            count++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+
+        synchronized long getCount() {
+            return count;
+        }
+
+        synchronized double getAverageMillis() {
+            return count == 0 ? 0.0 : totalNanos / (double) count / TimeUnit.MILLISECONDS.toNanos(1);
+        }
+
+        synchronized double getMaxMillis() {
+            return maxNanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+
+    private final PlayerWarpsPlus plugin;
+    private final Map<ChunkRef, Integer> ticketCounts = new ConcurrentHashMap<>();
+    private final LruCache<String, Latency> latencies = new LruCache<>(MAX_LATENCY_WARPS);
+    private final Map<Area, PendingLoad> pendingLoads = new ConcurrentHashMap<>();
+
+    DestinationPreloader(PlayerWarpsPlus plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Start loading a session's destination. The session is marked ready once
+     * every chunk has loaded (or loading failed, so the teleport is never blocked
+     * for good).
+     *
+     * @param session The session to preload for
+     */
+    void preload(WarpSession session) {
+        Location destination = session.destination;
+        World world = destination.getWorld();
+        if (world == null) {
+            session.destinationReady = true;
+            return;
+        }
+
+        Area area = new Area(world.getUID(), destination.getBlockX() >> 4, destination.getBlockZ() >> 4,
+                session.settings.getPreloadRadius());
+        long startNanos = System.nanoTime();
+        // Join a load already in flight for the same area; the callback is attached outside
+        // computeIfAbsent because an already-loaded area completes immediately
+        PendingLoad load = pendingLoads.computeIfAbsent(area, key -> request(world, key));
+        load.future().whenComplete((ignored, error) -> {
+            pendingLoads.remove(area, load);
+            onLoaded(session, world, load.chunks(), startNanos, error);
+        });
+    }
+
+    private static PendingLoad request(World world, Area area) {
+        int side = 2 * area.radius() + 1;
+        List<ChunkRef> chunks = new ArrayList<>(side * side);
+        List<CompletableFuture<Chunk>> futures = new ArrayList<>(side * side);
+        for (int x = area.centerX() - area.radius(); x <= area.centerX() + area.radius(); x++) {
+            for (int z = area.centerZ() - area.radius(); z <= area.centerZ() + area.radius(); z++) {
+                chunks.add(new ChunkRef(area.worldId(), x, z));
+                futures.add(world.getChunkAtAsync(x, z, true));
+            }
+        }
+        return new PendingLoad(List.copyOf(chunks), CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])));
+    }
+
+    private void onLoaded(WarpSession session, World world, List<ChunkRef> chunks, long startNanos, Throwable error) {
+        long elapsedNanos = System.nanoTime() - startNanos;
+        latencies.get(session.warpName, name -> new Latency()).record(elapsedNanos);
+
+        if (error != null) {
+            plugin.getLogger().log(Level.WARNING, "Failed to preload destination of warp " + session.warpName, error);
+        } else {
+            synchronized (session) {
+                if (!session.preloadReleased) {
+                    // Keep the chunks loaded until the player has arrived
+                    for (ChunkRef chunk : chunks) {
+                        ticketCounts.compute(chunk, (ref, count) -> {
+                            if (count == null) {
+                                Schedulers.runAtChunk(plugin, world, ref.x(), ref.z(),
+                                        () -> world.addPluginChunkTicket(ref.x(), ref.z(), plugin));
+                                return 1;
+                            }
+                            return count + 1;
+                        });
+                    }
+                    session.preloadedChunks = chunks;
+                }
+            }
+        }
+        session.destinationReady = true;
+
+        if (session.settings.isDebug()) {
+            plugin.getLogger().info(String.format("Destination of warp %s ready in %.1f ms",
+                    session.warpName, elapsedNanos / (double) TimeUnit.MILLISECONDS.toNanos(1)));
+        }
+    }
+
+    /**
+     * Release the chunks a session is holding. Safe to call more than once, and
+     * before the chunks have finished loading.
+     *
+     * @param session The session to release
+     */
+    void release(WarpSession session) {
+        List<ChunkRef> chunks;
+        synchronized (session) {
+            session.preloadReleased = true;
+            chunks = session.preloadedChunks;
+            session.preloadedChunks = null;
+        }
+        if (chunks == null) return;
+
+        World world = session.destination.getWorld();
+        if (world == null) return;
+        for (ChunkRef chunk : chunks) {
+            ticketCounts.computeIfPresent(chunk, (ref, count) -> {
+                if (count > 1) return count - 1;
+                // Scheduled inside compute so ticket changes for a chunk stay in count order
+                Schedulers.runAtChunk(plugin, world, ref.x(), ref.z(),
+                        () -> world.removePluginChunkTicket(ref.x(), ref.z(), plugin));
+                return null;
+            });
+        }
+    }
+
+    /**
+     * @return Number of chunks currently held loaded for warp destinations
+     */
+    int getHeldChunkCount() {
+        return ticketCounts.size();
+    }
+
+    /**
+     * @return Chunk-ready latency per warp name, for the most recently preloaded warps
+     */
+    Map<String, Latency> getLatencies() {
+        return latencies.snapshot();
+    }
+}
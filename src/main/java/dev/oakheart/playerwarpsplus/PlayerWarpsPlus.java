@@ -1,5 +1,6 @@
 package dev.oakheart.playerwarpsplus;
 
+import dev.oakheart.playerwarpsplus.util.MessageFormatter;
 import org.bukkit.plugin.java.JavaPlugin;
 
 /**
@@ -12,7 +13,7 @@ import org.bukkit.plugin.java.JavaPlugin;
  * <ul>
  *   <li>Configurable countdown timer with customizable messages</li>
  *   <li>Movement and damage cancellation during countdown</li>
- *   <li>Cinematic camera zoom effect using invisible bat vehicles</li>
+ *   <li>Cinematic camera zoom effect using invisible display entity or bat vehicles</li>
  *   <li>Blindness and darkness transition effects</li>
  *   <li>Fully customizable with MiniMessage formatting</li>
  *   <li>Bypass permission for instant teleports</li>
@@ -25,8 +26,8 @@ import org.bukkit.plugin.java.JavaPlugin;
  */
 public final class PlayerWarpsPlus extends JavaPlugin {
 
+    private volatile PluginSettings settings;
     private WarpCommandListener warpCommandListener;
-    private int batCleanupTaskId = -1;
 
     @Override
     public void onEnable() {
@@ -37,12 +38,20 @@ public final class PlayerWarpsPlus extends JavaPlugin {
             return;
         }
 
-        // Save default config if it doesn't exist
+        // Save default config if it doesn't exist, then compile it
         saveDefaultConfig();
+        settings = PluginSettings.compile(getConfig(), getLogger());
+        MessageFormatter.resetCache(settings.getTitleCacheSize());
 
-        // Register event listener
+        // Register event listener; it owns the ticker holding every warp session
         warpCommandListener = new WarpCommandListener(this);
         getServer().getPluginManager().registerEvents(warpCommandListener, this);
+        // Reaps orphaned camera entities as entity events report them
+        getServer().getPluginManager().registerEvents(new CameraReaper(this,
+                warpCommandListener.getCameraPool(), warpCommandListener.getTicker()), this);
+        // Spawns players who quit mid-zoom back where their zoom started
+        getServer().getPluginManager().registerEvents(
+                RestoreListener.create(this, warpCommandListener.getRestores()), this);
 
         // Register reload command
         ReloadCommand reloadCommand = new ReloadCommand(this);
@@ -53,31 +62,51 @@ public final class PlayerWarpsPlus extends JavaPlugin {
             getLogger().severe("Failed to register 'playerwarpsplus' command - is it defined in plugin.yml?");
         }
 
-        // Start periodic cleanup task to remove orphaned bats
-        long cleanupInterval = getConfig().getLong("bat-cleanup-interval", 100L);
-        batCleanupTaskId = getServer().getScheduler().runTaskTimer(this, () -> {
-            if (warpCommandListener != null) {
-                warpCommandListener.cleanupOrphanedBats();
-            }
-        }, cleanupInterval, cleanupInterval).getTaskId();
-
         getLogger().info("PlayerWarpsPlus has been enabled!");
-        getLogger().info("Countdown duration: " + getConfig().getInt("countdown.duration", 3) + " seconds");
+        getLogger().info("Countdown duration: " + settings.getDuration() + " seconds");
         getLogger().info("IMPORTANT: Remove wait-commands from PlayerWarps config to avoid conflicts!");
     }
 
     @Override
     public void onDisable() {
-        // Cancel periodic cleanup task
-        if (batCleanupTaskId != -1) {
-            getServer().getScheduler().cancelTask(batCleanupTaskId);
-        }
-
-        // Clean up tracked tasks
+        // End all sessions and remove every camera (also stops their timers)
         if (warpCommandListener != null) {
             warpCommandListener.cleanup();
         }
 
         getLogger().info("PlayerWarpsPlus has been disabled.");
     }
+
+    /**
+     * Reload config.yml from disk and atomically swap in a freshly compiled snapshot.
+     * Countdowns already in progress keep the snapshot they started with; the
+     * rendered title cache is cleared.
+     */
+    public void reloadSettings() {
+        reloadConfig();
+        settings = PluginSettings.compile(getConfig(), getLogger());
+        // Cached messages were rendered from the old templates
+        MessageFormatter.resetCache(settings.getTitleCacheSize());
+    }
+
+    /**
+     * @return The current compiled configuration snapshot
+     */
+    public PluginSettings getSettings() {
+        return settings;
+    }
+
+    /**
+     * @return The ticker holding and advancing all active warp sessions
+     */
+    public CountdownTicker getCountdownTicker() {
+        return warpCommandListener.getTicker();
+    }
+
+    /**
+     * @return The listener running warp sessions, which owns the camera pool, preloader and stats
+     */
+    WarpCommandListener getWarpCommandListener() {
+        return warpCommandListener;
+    }
 }
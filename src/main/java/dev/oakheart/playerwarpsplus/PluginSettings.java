@@ -0,0 +1,547 @@
+package dev.oakheart.playerwarpsplus;
+
+import dev.oakheart.playerwarpsplus.util.TitleTemplate;
+import net.kyori.adventure.key.Key;
+import net.kyori.adventure.sound.Sound;
+import net.kyori.adventure.title.Title;
+import org.bukkit.NamespacedKey;
+import org.bukkit.attribute.AttributeModifier;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.potion.PotionEffect;
+import org.bukkit.potion.PotionEffectType;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.logging.Logger;
+
+/**
+ * Immutable, pre-validated snapshot of {@code config.yml}.
+ *
+ * <p>The configuration is compiled once on enable and again on every
+ * {@code /pwp reload}; the countdown reads everything it needs from the
+ * current snapshot instead of looking values up by path. Range validation and
+ * its warnings happen here, once per load, rather than once per player.
+ *
+ * <p>Title messages are compiled into {@link TitleTemplate}s, and sounds,
+ * potion effects and title timings are built up front so they can
+ * be handed straight to the player. A disabled (or invalid) sound or effect is
+ * represented by {@code null}.
+ */
+public final class PluginSettings {
+
+    private static final int INVISIBILITY_DURATION_TICKS = 40; // 2 seconds - enough for transition, safe if player logs out
+    private static final NamespacedKey ZOOM_FOV_MODIFIER_KEY = NamespacedKey.fromString("playerwarpsplus:zoom_fov");
+
+    private final boolean debug;
+    private final String warpCommand;
+    private final long batCleanupInterval;
+    private final int titleCacheSize;
+    private final int cameraPoolMaxIdle;
+    private final int cameraPoolIdleTimeout;
+    private final boolean mountBypassAttachment;
+    private final boolean asyncTeleport;
+
+    private final int duration;
+    private final int zoomDuration;
+    private final int blackDuration;
+    private final ZoomPath zoomPath;
+
+    private final boolean preloadEnabled;
+    private final int preloadRadius;
+    private final int minBlackDuration;
+    private final int preloadMaxWait;
+
+    private final int zoomStartBudget;
+    private final int teleportBudget;
+
+    private final boolean adaptiveQualityEnabled;
+    private final double[] qualityThresholds; // Average MSPT at which each tier starts, by ordinal
+    private final double qualityHysteresis;
+
+    private final long restoreTtlMillis;
+    private final int restoreMaxEntries;
+
+    private final TitleTemplate countdownTitle;
+    private final TitleTemplate countdownSubtitle;
+    private final TitleTemplate finalTitle;
+    private final TitleTemplate finalSubtitle;
+    private final TitleTemplate cancelledTitle;
+    private final TitleTemplate cancelledSubtitle;
+    private final Title.Times titleTimes;
+    private final Title.Times finalTitleTimes;
+
+    private final Key countdownSoundKey;
+    private final float countdownSoundVolume;
+    private final float[] countdownPitches;
+    private final Sound finalSound;
+    private final Sound arrivalSound;
+
+    private final PotionEffect blindness;
+    private final PotionEffect darkness;
+    private final PotionEffect invisibility;
+    private final PotionEffect zoomSpeed;
+    private final AttributeModifier zoomFovModifier;
+
+    private PluginSettings(Reader reader) {
+        this.debug = reader.config.getBoolean("debug", false);
+        this.warpCommand = reader.config.getString("warp-command", "pw");
+        this.batCleanupInterval = reader.config.getLong("bat-cleanup-interval", 100L);
+        this.titleCacheSize = reader.getInt("title-cache-size", 64, 0, 10000);
+        this.cameraPoolMaxIdle = reader.getInt("camera-pool.max-idle", 4, 0, 64);
+        this.cameraPoolIdleTimeout = reader.getInt("camera-pool.idle-timeout", 60, 1, 3600) * 20;
+        this.mountBypassAttachment = reader.getMountStrategy("mount-strategy");
+        this.asyncTeleport = reader.getTeleportMethod("teleport-method");
+
+        this.duration = reader.getInt("countdown.duration", 3, 1, 10);
+        this.zoomDuration = reader.getInt("countdown.zoom-duration", 5, 1, 100);
+        this.blackDuration = reader.getInt("countdown.black-duration", 15, 1, 100);
+        this.zoomPath = ZoomPath.compile(
+                reader.getZoomMode("countdown.zoom.mode"),
+                reader.getEasing("countdown.zoom.easing"),
+                zoomDuration,
+                reader.getInt("countdown.zoom.keyframes", 1, 1, 20));
+
+        // Destination preloading - the black screen may end early, but never before min-black-duration
+        this.preloadEnabled = reader.config.getBoolean("countdown.preload.enabled", true);
+        this.preloadRadius = reader.getInt("countdown.preload.radius", 1, 0, 4);
+        this.minBlackDuration = Math.min(blackDuration, reader.getInt("countdown.preload.min-black-duration", 5, 1, 100));
+        this.preloadMaxWait = reader.getInt("countdown.preload.max-wait", 40, 0, 200);
+
+        // Per-tick limits for warp rushes (0 = unlimited)
+        this.zoomStartBudget = reader.getInt("tick-budget.zoom-starts", 20, 0, 1000);
+        this.teleportBudget = reader.getInt("tick-budget.teleports", 10, 0, 1000);
+
+        // Adaptive quality - each tier's threshold is at least the previous one's
+        this.adaptiveQualityEnabled = reader.config.getBoolean("adaptive-quality.enabled", true);
+        double noZoom = reader.getDouble("adaptive-quality.no-zoom-mspt", 40.0, 1.0, 1000.0);
+        double titleOnly = Math.max(noZoom, reader.getDouble("adaptive-quality.title-only-mspt", 45.0, 1.0, 1000.0));
+        double instant = Math.max(titleOnly, reader.getDouble("adaptive-quality.instant-mspt", 50.0, 1.0, 1000.0));
+        this.qualityThresholds = new double[]{0.0, noZoom, titleOnly, instant};
+        this.qualityHysteresis = reader.getDouble("adaptive-quality.hysteresis", 5.0, 0.0, 100.0);
+
+        // Locations of players who quit mid-zoom, kept on disk until they rejoin
+        this.restoreTtlMillis = reader.getInt("restore-journal.ttl", 72, 1, 8760) * 3_600_000L;
+        this.restoreMaxEntries = reader.getInt("restore-journal.max-entries", 10000, 100, 1_000_000);
+
+        this.countdownTitle = TitleTemplate.compile(reader.config.getString("countdown.title", "<#f9e59d>ᴡᴀʀᴘɪɴɢ ɪɴ %seconds%"));
+        this.countdownSubtitle = TitleTemplate.compile(reader.config.getString("countdown.subtitle", "<white>ᴅᴏ ɴᴏᴛ ᴍᴏᴠᴇ"));
+        this.finalTitle = TitleTemplate.compile(reader.config.getString("countdown.final-title", "<#7f91fd>ᴡᴀʀᴘɪɴɢ ᴛᴏ"));
+        this.finalSubtitle = TitleTemplate.compile(reader.config.getString("countdown.final-subtitle", "<white><sc>%warp%</sc>"));
+        this.cancelledTitle = TitleTemplate.compile(reader.config.getString("countdown.cancelled-title", "<red>TELEPORT CANCELLED"));
+        this.cancelledSubtitle = TitleTemplate.compile(reader.config.getString("countdown.cancelled-subtitle", "<gray>You moved"));
+
+        // Title timing (0-200 ticks reasonable range)
+        this.titleTimes = reader.getTimes("countdown.title-timing");
+        this.finalTitleTimes = reader.getTimes("countdown.final-title-timing");
+
+        // Countdown sound - pitch table indexed by seconds left
+        Key soundKey = null;
+        if (reader.config.getBoolean("countdown.sound.enabled", true)) {
+            soundKey = reader.getSoundKey("countdown.sound.type", "block.amethyst_block.break");
+        }
+        this.countdownSoundKey = soundKey;
+        this.countdownSoundVolume = (float) reader.getDouble("countdown.sound.volume", 1.0, 0.0, 10.0);
+        this.countdownPitches = new float[duration + 1];
+        for (int secondsLeft = 1; secondsLeft <= duration; secondsLeft++) {
+            countdownPitches[secondsLeft] = (float) reader.getDouble("countdown.sound.pitch-" + secondsLeft, 1.0, 0.0, 2.0);
+        }
+
+        this.finalSound = reader.getSound("countdown.final-sound", true, "block.glass.break", 0.8);
+        this.arrivalSound = reader.getSound("countdown.arrival-sound", false, "entity.enderman.teleport", 1.0);
+
+        this.blindness = reader.getEffect("countdown.blindness", PotionEffectType.BLINDNESS);
+        this.darkness = reader.getEffect("countdown.darkness", PotionEffectType.DARKNESS);
+        this.invisibility = new PotionEffect(PotionEffectType.INVISIBILITY, INVISIBILITY_DURATION_TICKS, 0, false, false);
+
+        // Speed effect widens FOV during zoom, lasting slightly longer than the zoom itself
+        int speedAmplifier = reader.getInt("countdown.zoom-speed-amplifier", 4, 0, 10);
+        this.zoomSpeed = new PotionEffect(PotionEffectType.SPEED, zoomDuration + 20, speedAmplifier, false, false);
+        // FOV mode: the same +20% per level movement speed Speed gives, without the potion effect
+        this.zoomFovModifier = new AttributeModifier(ZOOM_FOV_MODIFIER_KEY, 0.2 * (speedAmplifier + 1),
+                AttributeModifier.Operation.MULTIPLY_SCALAR_1);
+    }
+
+    /**
+     * Compile a configuration into a settings snapshot, logging any invalid values once
+     *
+     * @param config The loaded plugin configuration
+     * @param logger Logger for validation warnings
+     * @return The compiled settings
+     */
+    public static PluginSettings compile(FileConfiguration config, Logger logger) {
+        return new PluginSettings(new Reader(config, logger));
+    }
+
+    public boolean isDebug() {
+        return debug;
+    }
+
+    public String getWarpCommand() {
+        return warpCommand;
+    }
+
+    public long getBatCleanupInterval() {
+        return batCleanupInterval;
+    }
+
+    public int getTitleCacheSize() {
+        return titleCacheSize;
+    }
+
+    /**
+     * @return Parked cameras kept per world (0 = pooling disabled)
+     */
+    public int getCameraPoolMaxIdle() {
+        return cameraPoolMaxIdle;
+    }
+
+    /**
+     * @return Ticks a parked camera is kept before it is evicted
+     */
+    public int getCameraPoolIdleTimeout() {
+        return cameraPoolIdleTimeout;
+    }
+
+    /**
+     * @return true to grant a temporary WorldGuard bypass while mounting the camera,
+     * false to only override denied mounts from the mount event
+     */
+    public boolean isMountBypassAttachment() {
+        return mountBypassAttachment;
+    }
+
+    /**
+     * @return true to warp with a direct asynchronous teleport instead of through PlayerWarps
+     */
+    public boolean isAsyncTeleport() {
+        return asyncTeleport;
+    }
+
+    public int getDuration() {
+        return duration;
+    }
+
+    public int getZoomDuration() {
+        return zoomDuration;
+    }
+
+    public int getBlackDuration() {
+        return blackDuration;
+    }
+
+    public ZoomPath getZoomPath() {
+        return zoomPath;
+    }
+
+    public boolean isPreloadEnabled() {
+        return preloadEnabled;
+    }
+
+    /**
+     * @return Chunk radius loaded around a destination (0 = only the destination chunk)
+     */
+    public int getPreloadRadius() {
+        return preloadRadius;
+    }
+
+    /**
+     * @return Shortest black screen, in ticks, when the destination is already loaded
+     */
+    public int getMinBlackDuration() {
+        return minBlackDuration;
+    }
+
+    /**
+     * @return Longest extra time, in ticks, the teleport is held for a destination that is still loading
+     */
+    public int getPreloadMaxWait() {
+        return preloadMaxWait;
+    }
+
+    /**
+     * @return Most zooms (camera lease and mount) started per tick, 0 for no limit
+     */
+    public int getZoomStartBudget() {
+        return zoomStartBudget;
+    }
+
+    /**
+     * @return Most warp teleports per tick, 0 for no limit
+     */
+    public int getTeleportBudget() {
+        return teleportBudget;
+    }
+
+    public boolean isAdaptiveQualityEnabled() {
+        return adaptiveQualityEnabled;
+    }
+
+    /**
+     * @return Average MSPT at which a quality tier starts
+     */
+    double getQualityThreshold(QualityGovernor.Tier tier) {
+        return qualityThresholds[tier.ordinal()];
+    }
+
+    /**
+     * @return How far below a tier's threshold the average MSPT must drop before quality goes back up
+     */
+    public double getQualityHysteresis() {
+        return qualityHysteresis;
+    }
+
+    /**
+     * @return Milliseconds a pending location restore is kept for a player who hasn't rejoined
+     */
+    public long getRestoreTtlMillis() {
+        return restoreTtlMillis;
+    }
+
+    /**
+     * @return Most pending location restores kept; the oldest are dropped first
+     */
+    public int getRestoreMaxEntries() {
+        return restoreMaxEntries;
+    }
+
+    public TitleTemplate getCountdownTitle() {
+        return countdownTitle;
+    }
+
+    public TitleTemplate getCountdownSubtitle() {
+        return countdownSubtitle;
+    }
+
+    public TitleTemplate getFinalTitle() {
+        return finalTitle;
+    }
+
+    public TitleTemplate getFinalSubtitle() {
+        return finalSubtitle;
+    }
+
+    public TitleTemplate getCancelledTitle() {
+        return cancelledTitle;
+    }
+
+    public TitleTemplate getCancelledSubtitle() {
+        return cancelledSubtitle;
+    }
+
+    public Title.Times getTitleTimes() {
+        return titleTimes;
+    }
+
+    public Title.Times getFinalTitleTimes() {
+        return finalTitleTimes;
+    }
+
+    /**
+     * Get the countdown sound for a given second
+     *
+     * @param secondsLeft Seconds left in the countdown
+     * @return The sound to play, or null if countdown sounds are disabled
+     */
+    public Sound getCountdownSound(int secondsLeft) {
+        if (countdownSoundKey == null) return null;
+        float pitch = secondsLeft > 0 && secondsLeft < countdownPitches.length ? countdownPitches[secondsLeft] : 1.0f;
+        return Sound.sound(countdownSoundKey, Sound.Source.MASTER, countdownSoundVolume, pitch);
+    }
+
+    public Sound getFinalSound() {
+        return finalSound;
+    }
+
+    public Sound getArrivalSound() {
+        return arrivalSound;
+    }
+
+    public PotionEffect getBlindness() {
+        return blindness;
+    }
+
+    public PotionEffect getDarkness() {
+        return darkness;
+    }
+
+    public PotionEffect getInvisibility() {
+        return invisibility;
+    }
+
+    public PotionEffect getZoomSpeed() {
+        return zoomSpeed;
+    }
+
+    /**
+     * @return Movement speed modifier that widens the FOV in FOV zoom mode
+     */
+    public AttributeModifier getZoomFovModifier() {
+        return zoomFovModifier;
+    }
+
+    /**
+     * Reads and validates raw config values while a snapshot is being compiled
+     */
+    private static final class Reader {
+        final FileConfiguration config;
+        final Logger logger;
+
+        Reader(FileConfiguration config, Logger logger) {
+            this.config = config;
+            this.logger = logger;
+        }
+
+        /**
+         * Validate an integer config value
+         *
+         * @param path         Config path
+         * @param defaultValue Default value to use
+         * @param min          Minimum allowed value
+         * @param max          Maximum allowed value
+         * @return Validated value
+         */
+        int getInt(String path, int defaultValue, int min, int max) {
+            int value = config.getInt(path, defaultValue);
+            if (value < min || value > max) {
+                logger.warning("Invalid config value for '" + path + "': " + value +
+                        ". Must be between " + min + " and " + max + ". Using default: " + defaultValue);
+                return defaultValue;
+            }
+            return value;
+        }
+
+        /**
+         * Validate a double config value
+         *
+         * @param path         Config path
+         * @param defaultValue Default value to use
+         * @param min          Minimum allowed value
+         * @param max          Maximum allowed value
+         * @return Validated value
+         */
+        double getDouble(String path, double defaultValue, double min, double max) {
+            double value = config.getDouble(path, defaultValue);
+            if (value < min || value > max) {
+                logger.warning("Invalid config value for '" + path + "': " + value +
+                        ". Must be between " + min + " and " + max + ". Using default: " + defaultValue);
+                return defaultValue;
+            }
+            return value;
+        }
+
+        /**
+         * Build title times from a fade-in/stay/fade-out section (in ticks)
+         */
+        Title.Times getTimes(String path) {
+            int fadeIn = getInt(path + ".fade-in", 10, 0, 200);
+            int stay = getInt(path + ".stay", 40, 0, 200);
+            int fadeOut = getInt(path + ".fade-out", 10, 0, 200);
+
+            return Title.Times.times(
+                    Duration.ofMillis(fadeIn * 50L),
+                    Duration.ofMillis(stay * 50L),
+                    Duration.ofMillis(fadeOut * 50L)
+            );
+        }
+
+        /**
+         * Read the zoom backend ("display", "bat" or "fov")
+         */
+        ZoomPath.Mode getZoomMode(String path) {
+            String name = config.getString(path, "bat");
+            try {
+                return ZoomPath.Mode.valueOf(name.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                logger.warning("Invalid config value for '" + path + "': " + name +
+                        ". Must be bat, display or fov. Using default: bat");
+                return ZoomPath.Mode.BAT;
+            }
+        }
+
+        /**
+         * Read the camera mount strategy
+         *
+         * @return true for "attachment", false for "event"
+         */
+        boolean getMountStrategy(String path) {
+            String name = config.getString(path, "event");
+            if (name.equalsIgnoreCase("attachment")) return true;
+            if (!name.equalsIgnoreCase("event")) {
+                logger.warning("Invalid config value for '" + path + "': " + name +
+                        ". Must be event or attachment. Using default: event");
+            }
+            return false;
+        }
+
+        /**
+         * Read the warp teleport method (true for "async", false for "playerwarps")
+         */
+        boolean getTeleportMethod(String path) {
+            String name = config.getString(path, "playerwarps");
+            if (name.equalsIgnoreCase("async")) return true;
+            if (!name.equalsIgnoreCase("playerwarps")) {
+                logger.warning("Invalid config value for '" + path + "': " + name +
+                        ". Must be playerwarps or async. Using default: playerwarps");
+            }
+            return false;
+        }
+
+        /**
+         * Read a zoom easing curve name
+         */
+        ZoomPath.Easing getEasing(String path) {
+            String name = config.getString(path, "accelerate");
+            ZoomPath.Easing easing = ZoomPath.Easing.parse(name);
+            if (easing == null) {
+                logger.warning("Invalid config value for '" + path + "': " + name +
+                        ". Must be accelerate, linear, ease-in, ease-out or ease-in-out. Using default: accelerate");
+                return ZoomPath.Easing.ACCELERATE;
+            }
+            return easing;
+        }
+
+        /**
+         * Resolve a sound name in Minecraft format (e.g. "block.amethyst_block.break")
+         *
+         * @return The sound key, or null if the name is invalid
+         */
+        Key getSoundKey(String path, String defaultName) {
+            String soundName = config.getString(path, defaultName);
+            try {
+                return Key.key("minecraft", soundName);
+            } catch (Exception e) {
+                logger.warning("Invalid sound: " + soundName + " - " + e.getMessage());
+                return null;
+            }
+        }
+
+        /**
+         * Build a sound from a section with enabled/type/volume/pitch keys
+         *
+         * @return The sound, or null if disabled or invalid
+         */
+        Sound getSound(String path, boolean enabledByDefault, String defaultType, double defaultPitch) {
+            if (!config.getBoolean(path + ".enabled", enabledByDefault)) return null;
+
+            Key key = getSoundKey(path + ".type", defaultType);
+            if (key == null) return null;
+
+            float volume = (float) getDouble(path + ".volume", 1.0, 0.0, 10.0);
+            float pitch = (float) getDouble(path + ".pitch", defaultPitch, 0.0, 2.0);
+            return Sound.sound(key, Sound.Source.MASTER, volume, pitch);
+        }
+
+        /**
+         * Build a potion effect from a section with enabled/duration/amplifier keys
+         *
+         * @return The effect, or null if disabled
+         */
+        PotionEffect getEffect(String path, PotionEffectType type) {
+            if (!config.getBoolean(path + ".enabled", true)) return null;
+
+            int seconds = getInt(path + ".duration", 3, 1, 60);
+            int amplifier = getInt(path + ".amplifier", 0, 0, 10);
+            return new PotionEffect(type, seconds * 20, amplifier, false, false);
+        }
+    }
+}
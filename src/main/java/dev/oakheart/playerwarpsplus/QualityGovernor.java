@@ -0,0 +1,130 @@
+package dev.oakheart.playerwarpsplus;
+
+import org.bukkit.Bukkit;
+
+import java.util.Locale;
+
+/**
+ * Scales warp effects down while the server is lagging.
+ *
+ * <p>Paper's average tick time (over the last 100 ticks) is sampled at most
+ * once a second, when a warp starts or stats are shown, so nothing runs while
+ * no one is warping. Each {@link Tier} kicks in once the average MSPT reaches
+ * its threshold, and quality only goes back up once the average has dropped
+ * {@code hysteresis} below it, so a server hovering around a threshold doesn't
+ * flap between tiers. A session keeps the tier it started with.
+ *
+ * <p>Folia has no single tick to measure, so sessions there always get
+ * {@link Tier#FULL}.
+ */
+final class QualityGovernor {
+
+    private static final int SAMPLE_INTERVAL_TICKS = 20;
+
+    /**
+     * Effect quality, from best to cheapest
+     */
+    enum Tier {
+        /** Countdown, zoom, black screen and sounds */
+        FULL,
+        /** No camera entity or zoom; countdown, black screen and sounds remain */
+        NO_ZOOM,
+        /** Countdown titles only, then the warp */
+        TITLE_ONLY,
+        /** No countdown at all; the warp goes straight through */
+        INSTANT;
+
+        /**
+         * @return true if the zoom runs (camera, invisibility, speed)
+         */
+        boolean hasZoom() {
+            return this == FULL;
+        }
+
+        /**
+         * @return true if potion effects, the black screen and sounds are used
+         */
+        boolean hasEffects() {
+            return this == FULL || this == NO_ZOOM;
+        }
+
+        String displayName() {
+            return name().toLowerCase(Locale.ROOT).replace('_', '-');
+        }
+    }
+
+    private final PlayerWarpsPlus plugin;
+    private Tier tier = Tier.FULL;
+    private double lastMspt;
+    private int lastSampleTick = Integer.MIN_VALUE;
+
+    QualityGovernor(PlayerWarpsPlus plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Get the tier for a warp starting now, re-sampling the tick time if the last
+     * sample is more than a second old
+     *
+     * @return The current tier
+     */
+    synchronized Tier sample() {
+        PluginSettings settings = plugin.getSettings();
+        if (!settings.isAdaptiveQualityEnabled() || Schedulers.FOLIA) {
+            tier = Tier.FULL;
+            return tier;
+        }
+
+        int now = Bukkit.getCurrentTick();
+        if (now - lastSampleTick < SAMPLE_INTERVAL_TICKS) {
+            return tier;
+        }
+        lastSampleTick = now;
+        lastMspt = Bukkit.getAverageTickTime();
+
+        Tier next = select(settings, lastMspt);
+        if (next != tier) {
+            plugin.getLogger().info(String.format(Locale.ROOT, "Average tick time %.1f ms: warp effects %s from %s to %s",
+                    lastMspt, next.ordinal() > tier.ordinal() ? "reduced" : "restored",
+                    tier.displayName(), next.displayName()));
+            tier = next;
+        }
+        return tier;
+    }
+
+    /**
+     * @return The tier last handed out
+     */
+    synchronized Tier getTier() {
+        return tier;
+    }
+
+    /**
+     * @return The average tick time at the last sample, in milliseconds
+     */
+    synchronized double getLastMspt() {
+        return lastMspt;
+    }
+
+    private Tier select(PluginSettings settings, double mspt) {
+        Tier[] tiers = Tier.values();
+        // Worst tier whose threshold is reached, and worst whose recovery point hasn't been passed yet
+        Tier degraded = Tier.FULL;
+        Tier held = Tier.FULL;
+        for (int i = 1; i < tiers.length; i++) {
+            double threshold = settings.getQualityThreshold(tiers[i]);
+            if (mspt >= threshold) {
+                degraded = tiers[i];
+            }
+            if (mspt >= threshold - settings.getQualityHysteresis()) {
+                held = tiers[i];
+            }
+        }
+
+        if (degraded.ordinal() > tier.ordinal()) {
+            return degraded;
+        }
+        // Recover only as far as the hysteresis allows, never worse than now
+        return held.ordinal() < tier.ordinal() ? held : tier;
+    }
+}
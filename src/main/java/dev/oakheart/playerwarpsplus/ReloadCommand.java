@@ -1,5 +1,7 @@
 package dev.oakheart.playerwarpsplus;
 
+import dev.oakheart.playerwarpsplus.util.LruCache;
+import dev.oakheart.playerwarpsplus.util.MessageFormatter;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.format.TextDecoration;
@@ -9,28 +11,39 @@ import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabCompleter;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
 /**
- * Command handler for the /playerwarpsplus reload command.
+ * Command handler for the /playerwarpsplus reload and stats commands.
  *
- * <p>This command allows server administrators with the appropriate permission
+ * <p>{@code reload} allows server administrators with the appropriate permission
  * to reload the plugin's configuration without restarting the server.
+ * {@code stats} shows what the plugin is doing and what it costs: active
+ * sessions, the current effect quality tier, warp rate, cancellations by
+ * cause, latency histograms, the camera pool, the tick budget and destination
+ * preloading (see {@link WarpStats}).
  *
- * <p>Usage: /playerwarpsplus reload
- * <p>Aliases: /pwplus reload, /pwp reload
- * <p>Permission: playerwarpsplus.reload (default: op)
+ * <p>Usage: /playerwarpsplus &lt;reload|stats&gt;
+ * <p>Aliases: /pwplus, /pwp
+ * <p>Permissions: playerwarpsplus.reload, playerwarpsplus.stats (default: op)
  *
  * <p>After reloading, displays a summary of key configuration values including:
  * <ul>
  *   <li>Countdown duration</li>
  *   <li>Final sound enabled/disabled status</li>
  *   <li>Blindness effect enabled/disabled status</li>
+ *   <li>Title cache hit/miss/eviction counters from before the reload</li>
  * </ul>
  */
 public class ReloadCommand implements CommandExecutor, TabCompleter {
 
+    private static final int PRELOAD_WARPS_SHOWN = 5; // Slowest warps listed under destination preloading
+
     private final PlayerWarpsPlus plugin;
 
     public ReloadCommand(PlayerWarpsPlus plugin) {
@@ -40,20 +53,36 @@ public class ReloadCommand implements CommandExecutor, TabCompleter {
     @Override
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
         // Check permission first to avoid leaking command structure
-        if (!sender.hasPermission("playerwarpsplus.reload")) {
+        boolean canReload = sender.hasPermission("playerwarpsplus.reload");
+        boolean canStats = sender.hasPermission("playerwarpsplus.stats");
+        if (!canReload && !canStats) {
             sender.sendMessage(Component.text("You don't have permission to use this command.", NamedTextColor.RED));
             return true;
         }
 
-        // Check if "reload" subcommand was provided
-        if (args.length == 0 || !args[0].equalsIgnoreCase("reload")) {
-            sender.sendMessage(Component.text("Usage: /" + label + " reload", NamedTextColor.RED));
-            return true;
+        String subcommand = args.length == 0 ? "" : args[0].toLowerCase(Locale.ROOT);
+        if (canReload && subcommand.equals("reload")) {
+            reload(sender);
+        } else if (canStats && subcommand.equals("stats")) {
+            sendStats(sender);
+        } else {
+            String usage = canReload && canStats ? "<reload|stats>" : canReload ? "reload" : "stats";
+            sender.sendMessage(Component.text("Usage: /" + label + " " + usage, NamedTextColor.RED));
         }
+        return true;
+    }
 
+    /**
+     * Reload the config and show a summary of it
+     */
+    private void reload(CommandSender sender) {
         try {
-            // Reload config
-            plugin.reloadConfig();
+            // Capture cache counters before the reload clears them
+            LruCache.Stats cacheStats = MessageFormatter.getCacheStats();
+
+            // Reload and recompile config
+            plugin.reloadSettings();
+            PluginSettings settings = plugin.getSettings();
 
             sender.sendMessage(Component.text()
                     .append(Component.text("✓", NamedTextColor.GREEN, TextDecoration.BOLD))
@@ -62,17 +91,24 @@ public class ReloadCommand implements CommandExecutor, TabCompleter {
 
             sender.sendMessage(Component.text()
                     .append(Component.text("Countdown duration: ", NamedTextColor.GRAY))
-                    .append(Component.text(plugin.getConfig().getInt("countdown.duration", 3) + " seconds", NamedTextColor.WHITE))
+                    .append(Component.text(settings.getDuration() + " seconds", NamedTextColor.WHITE))
                     .build());
 
             sender.sendMessage(Component.text()
                     .append(Component.text("Final sound: ", NamedTextColor.GRAY))
-                    .append(Component.text(plugin.getConfig().getBoolean("countdown.final-sound.enabled", true) ? "Enabled" : "Disabled", NamedTextColor.WHITE))
+                    .append(Component.text(settings.getFinalSound() != null ? "Enabled" : "Disabled", NamedTextColor.WHITE))
                     .build());
 
             sender.sendMessage(Component.text()
                     .append(Component.text("Blindness effect: ", NamedTextColor.GRAY))
-                    .append(Component.text(plugin.getConfig().getBoolean("countdown.blindness.enabled", true) ? "Enabled" : "Disabled", NamedTextColor.WHITE))
+                    .append(Component.text(settings.getBlindness() != null ? "Enabled" : "Disabled", NamedTextColor.WHITE))
+                    .build());
+
+            sender.sendMessage(Component.text()
+                    .append(Component.text("Title cache (since last reload): ", NamedTextColor.GRAY))
+                    .append(Component.text(cacheStats.hits() + " hits, " + cacheStats.misses() + " misses, "
+                            + cacheStats.evictions() + " evictions, " + cacheStats.size() + "/" + cacheStats.capacity()
+                            + " entries", NamedTextColor.WHITE))
                     .build());
 
         } catch (Exception e) {
@@ -82,8 +118,90 @@ public class ReloadCommand implements CommandExecutor, TabCompleter {
                     .build());
             plugin.getLogger().log(Level.SEVERE, "Error reloading config", e);
         }
+    }
 
-        return true;
+    /**
+     * Show runtime stats since the plugin was enabled
+     */
+    private void sendStats(CommandSender sender) {
+        WarpCommandListener warps = plugin.getWarpCommandListener();
+        WarpStats stats = warps.getStats();
+        CameraPool pool = warps.getCameraPool();
+        DestinationPreloader preloader = warps.getPreloader();
+        LruCache.Stats cacheStats = MessageFormatter.getCacheStats();
+
+        sender.sendMessage(Component.text("PlayerWarpsPlus stats (since enable)", NamedTextColor.GREEN, TextDecoration.BOLD));
+
+        QualityGovernor governor = warps.getGovernor();
+        QualityGovernor.Tier tier = governor.sample();
+        sender.sendMessage(statLine("Effect quality", tier.displayName()
+                + String.format(Locale.ROOT, " (%.1f mspt at last sample)", governor.getLastMspt())));
+        sender.sendMessage(statLine("Active sessions", String.valueOf(warps.getTicker().getActiveCount())));
+        sender.sendMessage(statLine("Warps", stats.getWarpCount() + " total, "
+                + stats.getWarpsLastMinute() + " in the last minute"));
+        sender.sendMessage(statLine("Cancelled", "move " + stats.getCancellations(WarpStats.CancelCause.MOVE)
+                + ", damage " + stats.getCancellations(WarpStats.CancelCause.DAMAGE)
+                + ", teleport " + stats.getCancellations(WarpStats.CancelCause.TELEPORT)
+                + ", quit " + stats.getCancellations(WarpStats.CancelCause.QUIT)
+                + ", other " + stats.getCancellations(WarpStats.CancelCause.OTHER)));
+        sender.sendMessage(statLine("Command fallbacks", String.valueOf(stats.getCommandFallbackCount())));
+
+        sender.sendMessage(statLine("Event handler", formatHistogram(stats.eventHandler)));
+        sender.sendMessage(statLine("Session tick", formatHistogram(stats.sessionStep)));
+        sender.sendMessage(statLine("Camera lease", formatHistogram(stats.cameraLease)));
+        sender.sendMessage(statLine("teleportLocation", formatHistogram(stats.teleportLocation)));
+        sender.sendMessage(statLine("Event to arrival", formatHistogram(stats.eventToArrival)));
+
+        sender.sendMessage(statLine("Camera pool", pool.getLeasedCount() + " leased, " + pool.getIdleCount()
+                + " idle, peak " + pool.getHighWaterMark() + ", " + pool.getSpawnedCount() + " spawned, "
+                + pool.getReusedCount() + " reused, " + pool.getLeakedCount() + " leaked"));
+
+        TickBudget budget = warps.getTickBudget();
+        sender.sendMessage(statLine("Tick budget", budget.getWaiting(TickBudget.Operation.ZOOM_START)
+                + " waiting to zoom, " + budget.getWaiting(TickBudget.Operation.TELEPORT) + " waiting to teleport, "
+                + budget.getDeferredTicks() + " ticks deferred"));
+
+        sender.sendMessage(statLine("Pending restores", String.valueOf(warps.getRestores().size())));
+
+        sender.sendMessage(statLine("Preloaded chunks held", String.valueOf(preloader.getHeldChunkCount())));
+        preloader.getLatencies().entrySet().stream()
+                .sorted(Comparator.comparingDouble(
+                        (Map.Entry<String, DestinationPreloader.Latency> entry) -> entry.getValue().getAverageMillis()).reversed())
+                .limit(PRELOAD_WARPS_SHOWN)
+                .forEach(entry -> sender.sendMessage(statLine("  " + entry.getKey(), String.format(Locale.ROOT,
+                        "%d loads, avg %.1f ms, max %.1f ms", entry.getValue().getCount(),
+                        entry.getValue().getAverageMillis(), entry.getValue().getMaxMillis()))));
+
+        sender.sendMessage(statLine("Title cache (since last reload)", cacheStats.hits() + " hits, "
+                + cacheStats.misses() + " misses, " + cacheStats.evictions() + " evictions, "
+                + cacheStats.size() + "/" + cacheStats.capacity() + " entries"));
+    }
+
+    private static Component statLine(String label, String value) {
+        return Component.text()
+                .append(Component.text(label + ": ", NamedTextColor.GRAY))
+                .append(Component.text(value, NamedTextColor.WHITE))
+                .build();
+    }
+
+    private static String formatHistogram(WarpStats.Histogram histogram) {
+        if (histogram.getCount() == 0) {
+            return "no samples";
+        }
+        return histogram.getCount() + " samples, avg " + formatNanos(histogram.getAverageNanos())
+                + ", p50 ≤" + formatNanos(histogram.getPercentileNanos(50))
+                + ", p99 ≤" + formatNanos(histogram.getPercentileNanos(99))
+                + ", max " + formatNanos(histogram.getMaxNanos());
+    }
+
+    private static String formatNanos(long nanos) {
+        if (nanos < TimeUnit.MILLISECONDS.toNanos(1)) {
+            return TimeUnit.NANOSECONDS.toMicros(nanos) + " µs";
+        }
+        if (nanos < TimeUnit.SECONDS.toNanos(1)) {
+            return String.format(Locale.ROOT, "%.1f ms", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        return String.format(Locale.ROOT, "%.2f s", nanos / (double) TimeUnit.SECONDS.toNanos(1));
     }
 
     @Override
@@ -91,12 +209,13 @@ public class ReloadCommand implements CommandExecutor, TabCompleter {
         List<String> completions = new ArrayList<>();
 
         if (args.length == 1) {
-            // Tab complete "reload" if player has permission
-            if (sender.hasPermission("playerwarpsplus.reload")) {
-                String input = args[0].toLowerCase();
-                if ("reload".startsWith(input)) {
-                    completions.add("reload");
-                }
+            // Tab complete the subcommands the player has permission for
+            String input = args[0].toLowerCase();
+            if (sender.hasPermission("playerwarpsplus.reload") && "reload".startsWith(input)) {
+                completions.add("reload");
+            }
+            if (sender.hasPermission("playerwarpsplus.stats") && "stats".startsWith(input)) {
+                completions.add("stats");
             }
         }
 
@@ -0,0 +1,287 @@
+package dev.oakheart.playerwarpsplus;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Remembers where players who disconnected mid-zoom must be put back when they
+ * rejoin, across restarts.
+ *
+ * <p>Every change is appended to {@code restores.journal} in the plugin's data
+ * folder as one line: {@code P <player> <time> <world> <x> <y> <z> <yaw> <pitch>}
+ * when a restore is recorded, {@code R <player>} when it is used. Lines are
+ * buffered and appended in batches from Paper's async scheduler, so the thread
+ * handling a disconnect never touches the disk. On enable the journal is
+ * replayed into memory, entries older than {@code restore-journal.ttl} are
+ * dropped and the file is rewritten with only the live entries; the same
+ * compaction runs whenever the file has grown to twice
+ * {@code restore-journal.max-entries} lines. A line torn by a crash is skipped,
+ * and appends start on a new line so the record after it isn't lost with it.
+ *
+ * <p>The in-memory index answers rejoin lookups with a single map access and
+ * is bounded by {@code restore-journal.max-entries}, dropping the oldest
+ * entries first. Thread-safe.
+ */
+final class RestoreJournal {
+
+    private static final String FILE_NAME = "restores.journal";
+    private static final long FLUSH_DELAY_MILLIS = 250; // Collects the appends of a disconnect storm into one write
+    private static final int COMPACT_FACTOR = 2; // Compact once the file holds this many times max-entries lines
+
+    private record Entry(UUID worldId, double x, double y, double z, float yaw, float pitch, long recordedAt) {
+
+        String toLine(UUID playerId) {
+            return "P " + playerId + ' ' + recordedAt + ' ' + worldId + ' '
+                    + x + ' ' + y + ' ' + z + ' ' + yaw + ' ' + pitch;
+        }
+    }
+
+    private final PlayerWarpsPlus plugin;
+    private final Path file;
+    private final Map<UUID, Entry> index = new LinkedHashMap<>(); // Oldest first, guarded by this
+    private final Object writeLock = new Object(); // Serialises writes to the file; taken before this
+    private final StringBuilder buffer = new StringBuilder(); // Lines not yet written, guarded by this
+    private int bufferedLines; // Guarded by this
+    private boolean flushScheduled; // Guarded by this
+    private int fileLines; // Lines in the file, guarded by writeLock
+    private boolean tailChecked; // Whether the file is known to end with a newline, guarded by writeLock
+
+    RestoreJournal(PlayerWarpsPlus plugin) {
+        this.plugin = plugin;
+        this.file = plugin.getDataFolder().toPath().resolve(FILE_NAME);
+    }
+
+    /**
+     * Replay the journal into memory, then rewrite it without used, expired or
+     * unreadable entries
+     */
+    void load() {
+        PluginSettings settings = plugin.getSettings();
+        int skipped = 0;
+        int loaded;
+        synchronized (this) {
+            index.clear();
+            if (Files.exists(file)) {
+                try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        if (!line.isBlank() && !replay(line)) {
+                            skipped++;
+                        }
+                    }
+                } catch (IOException e) {
+                    plugin.getLogger().log(Level.WARNING, "Failed to read " + FILE_NAME, e);
+                }
+            }
+
+            long oldestAllowed = System.currentTimeMillis() - settings.getRestoreTtlMillis();
+            index.values().removeIf(entry -> entry.recordedAt() < oldestAllowed);
+            trim(settings.getRestoreMaxEntries());
+            loaded = index.size();
+        }
+        compact();
+
+        if (skipped > 0) {
+            plugin.getLogger().warning("Skipped " + skipped + " unreadable line(s) in " + FILE_NAME);
+        }
+        if (loaded > 0) {
+            plugin.getLogger().info("Loaded " + loaded + " pending location restore(s)");
+        }
+    }
+
+    /**
+     * Record where a player must be put back when they next join
+     *
+     * @param playerId The player
+     * @param location Where to put them
+     */
+    void record(UUID playerId, Location location) {
+        Entry entry = new Entry(location.getWorld().getUID(), location.getX(), location.getY(), location.getZ(),
+                location.getYaw(), location.getPitch(), System.currentTimeMillis());
+        synchronized (this) {
+            // Re-inserted so it counts as the newest entry
+            index.remove(playerId);
+            index.put(playerId, entry);
+            trim(plugin.getSettings().getRestoreMaxEntries());
+            append(entry.toLine(playerId));
+        }
+    }
+
+    /**
+     * Remove a player's pending restore
+     *
+     * @param playerId The player
+     * @return Where to put them, or null if there is nothing (still valid) to restore
+     */
+    Location take(UUID playerId) {
+        Entry entry;
+        synchronized (this) {
+            entry = index.remove(playerId);
+            if (entry == null) return null;
+            append("R " + playerId);
+        }
+
+        if (entry.recordedAt() < System.currentTimeMillis() - plugin.getSettings().getRestoreTtlMillis()) {
+            return null;
+        }
+        World world = Bukkit.getWorld(entry.worldId());
+        return world != null ? new Location(world, entry.x(), entry.y(), entry.z(), entry.yaw(), entry.pitch()) : null;
+    }
+
+    /**
+     * @return Pending restores held in memory
+     */
+    synchronized int size() {
+        return index.size();
+    }
+
+    /**
+     * Write every buffered line now, compacting the file if it has grown too long
+     */
+    void flush() {
+        synchronized (writeLock) {
+            String batch;
+            int lines;
+            synchronized (this) {
+                flushScheduled = false;
+                if (buffer.isEmpty()) return;
+                batch = buffer.toString();
+                lines = bufferedLines;
+                buffer.setLength(0);
+                bufferedLines = 0;
+            }
+
+            try {
+                Files.createDirectories(file.getParent());
+                if (!tailChecked) {
+                    // A crash mid-write can leave a torn last line; start a new one so this batch survives
+                    if (endsWithoutNewline(file)) {
+                        batch = '\n' + batch;
+                    }
+                    tailChecked = true;
+                }
+                Files.writeString(file, batch, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                fileLines += lines;
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.WARNING, "Failed to write " + FILE_NAME, e);
+            }
+
+            if (fileLines >= COMPACT_FACTOR * plugin.getSettings().getRestoreMaxEntries()) {
+                compact();
+            }
+        }
+    }
+
+    /**
+     * Rewrite the journal with one line per live entry. The new file replaces
+     * the old one atomically, so a crash leaves either of them intact.
+     */
+    private void compact() {
+        synchronized (writeLock) {
+            StringBuilder content = new StringBuilder();
+            int lines;
+            synchronized (this) {
+                for (Map.Entry<UUID, Entry> entry : index.entrySet()) {
+                    content.append(entry.getValue().toLine(entry.getKey())).append('\n');
+                }
+                lines = index.size();
+                // Everything buffered is already reflected in the index
+                buffer.setLength(0);
+                bufferedLines = 0;
+            }
+
+            try {
+                Files.createDirectories(file.getParent());
+                Path temp = file.resolveSibling(FILE_NAME + ".tmp");
+                Files.writeString(temp, content, StandardCharsets.UTF_8);
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                fileLines = lines;
+                tailChecked = true;
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.WARNING, "Failed to compact " + FILE_NAME, e);
+            }
+        }
+    }
+
+    /**
+     * Buffer a line and make sure a flush is coming (caller holds this)
+     */
+    private void append(String line) {
+        buffer.append(line).append('\n');
+        bufferedLines++;
+        if (!flushScheduled) {
+            flushScheduled = true;
+            Bukkit.getAsyncScheduler().runDelayed(plugin, task -> flush(), FLUSH_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * @return true if the file's last line has no line break, i.e. was torn by a crash
+     */
+    private static boolean endsWithoutNewline(Path file) throws IOException {
+        if (!Files.exists(file)) return false;
+        try (SeekableByteChannel channel = Files.newByteChannel(file)) {
+            long size = channel.size();
+            if (size == 0) return false;
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.position(size - 1).read(last);
+            return last.get(0) != '\n';
+        }
+    }
+
+    /**
+     * Apply one journal line to the index (caller holds this)
+     *
+     * @return false if the line couldn't be parsed
+     */
+    private boolean replay(String line) {
+        String[] parts = line.split(" ");
+        try {
+            if (parts.length == 2 && parts[0].equals("R")) {
+                index.remove(UUID.fromString(parts[1]));
+                return true;
+            }
+            if (parts.length == 9 && parts[0].equals("P")) {
+                UUID playerId = UUID.fromString(parts[1]);
+                Entry entry = new Entry(UUID.fromString(parts[3]), Double.parseDouble(parts[4]),
+                        Double.parseDouble(parts[5]), Double.parseDouble(parts[6]), Float.parseFloat(parts[7]),
+                        Float.parseFloat(parts[8]), Long.parseLong(parts[2]));
+                index.remove(playerId);
+                index.put(playerId, entry);
+                return true;
+            }
+        } catch (IllegalArgumentException e) {
+            // Torn or hand-edited line - fall through
+        }
+        return false;
+    }
+
+    /**
+     * Drop the oldest entries beyond the limit (caller holds this)
+     */
+    private void trim(int maxEntries) {
+        Iterator<UUID> oldest = index.keySet().iterator();
+        while (index.size() > maxEntries && oldest.hasNext()) {
+            oldest.next();
+            oldest.remove();
+        }
+    }
+}
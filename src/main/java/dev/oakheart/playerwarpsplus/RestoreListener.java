@@ -0,0 +1,72 @@
+package dev.oakheart.playerwarpsplus;
+
+import io.papermc.paper.event.player.AsyncPlayerSpawnLocationEvent;
+import org.bukkit.Location;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Puts players who disconnected mid-zoom back where their zoom started, by
+ * changing where they spawn rather than teleporting them after they join. The
+ * server then only loads and sends the chunks around the restored location.
+ *
+ * <p>Paper 1.21.6 and later resolve the spawn location off the main thread in
+ * {@link AsyncPlayerSpawnLocationEvent}; older versions only have the main
+ * thread {@code PlayerSpawnLocationEvent}. {@link #create} picks whichever the
+ * server has, and only the chosen listener class is ever loaded.
+ */
+final class RestoreListener {
+
+    private RestoreListener() {
+    }
+
+    /**
+     * @return A listener applying pending restores from the journal at spawn
+     */
+    static Listener create(PlayerWarpsPlus plugin, RestoreJournal restores) {
+        return hasAsyncSpawnEvent() ? new AsyncSpawn(plugin, restores) : new LegacySpawn(plugin, restores);
+    }
+
+    private static void restore(PlayerWarpsPlus plugin, RestoreJournal restores, UUID playerId, String name,
+                                Consumer<Location> setSpawnLocation) {
+        Location restoreLocation = restores.take(playerId);
+        if (restoreLocation == null) return;
+
+        setSpawnLocation.accept(restoreLocation);
+        if (plugin.getSettings().isDebug()) {
+            plugin.getLogger().info("Restored " + name + " to pre-zoom location on rejoin");
+        }
+    }
+
+    private static boolean hasAsyncSpawnEvent() {
+        try {
+            Class.forName("io.papermc.paper.event.player.AsyncPlayerSpawnLocationEvent");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private record AsyncSpawn(PlayerWarpsPlus plugin, RestoreJournal restores) implements Listener {
+
+        @EventHandler(priority = EventPriority.HIGH)
+        public void onSpawnLocation(AsyncPlayerSpawnLocationEvent event) {
+            restore(plugin, restores, event.getConnection().getProfile().getId(),
+                    event.getConnection().getProfile().getName(), event::setSpawnLocation);
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private record LegacySpawn(PlayerWarpsPlus plugin, RestoreJournal restores) implements Listener {
+
+        @EventHandler(priority = EventPriority.HIGH)
+        public void onSpawnLocation(org.spigotmc.event.player.PlayerSpawnLocationEvent event) {
+            restore(plugin, restores, event.getPlayer().getUniqueId(), event.getPlayer().getName(),
+                    event::setSpawnLocation);
+        }
+    }
+}
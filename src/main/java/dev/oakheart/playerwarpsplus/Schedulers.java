@@ -0,0 +1,75 @@
+package dev.oakheart.playerwarpsplus;
+
+import io.papermc.paper.entity.TeleportFlag;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.bukkit.plugin.Plugin;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Picks the right scheduler and teleport method for Paper or Folia.
+ *
+ * <p>On Folia there is no main thread: entities may only be touched from the
+ * region that owns them, world state from the region scheduler, and
+ * {@link Entity#teleport} is not supported at all. Paper implements the same
+ * region/entity scheduler APIs on its main thread, so the Folia-safe path works
+ * there too. Paper keeps the cheaper plain calls where they differ (a
+ * synchronous teleport, running directly on the main thread).
+ */
+final class Schedulers {
+
+    /**
+     * true when running on Folia (regionised multithreading)
+     */
+    static final boolean FOLIA = isFolia();
+
+    private Schedulers() {
+    }
+
+    /**
+     * Run a task on the thread that owns a chunk. Runs immediately if that is
+     * the current thread on Paper.
+     */
+    static void runAtChunk(Plugin plugin, World world, int chunkX, int chunkZ, Runnable task) {
+        if (FOLIA) {
+            Bukkit.getRegionScheduler().execute(plugin, world, chunkX, chunkZ, task);
+        } else if (Bukkit.isPrimaryThread()) {
+            task.run();
+        } else {
+            Bukkit.getScheduler().runTask(plugin, task);
+        }
+    }
+
+    /**
+     * Run a task on the thread that owns an entity after a delay. The task is
+     * dropped if the entity is removed first.
+     */
+    static void runLater(Plugin plugin, Entity entity, Runnable task, long delayTicks) {
+        entity.getScheduler().runDelayed(plugin, scheduled -> task.run(), null, delayTicks);
+    }
+
+    /**
+     * Teleport an entity: synchronously on Paper, through {@code teleportAsync} on Folia
+     *
+     * @return Completes with whether the teleport succeeded
+     */
+    static CompletableFuture<Boolean> teleport(Entity entity, Location location, TeleportFlag... flags) {
+        if (FOLIA) {
+            return entity.teleportAsync(location, PlayerTeleportEvent.TeleportCause.PLUGIN, flags);
+        }
+        return CompletableFuture.completedFuture(entity.teleport(location, flags));
+    }
+
+    private static boolean isFolia() {
+        try {
+            Class.forName("io.papermc.paper.threadedregions.RegionizedServer");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package dev.oakheart.playerwarpsplus;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityDamageEvent;
+import org.bukkit.event.entity.EntityMountEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+
+/**
+ * Guards players with an active warp session against movement, damage,
+ * external teleports and blocked camera mounts, and gives the warp teleport
+ * itself the ground location the zoom started from (see {@link BackLocations}).
+ *
+ * <p>These events fire constantly for every player and mob on the server while
+ * only a handful of players are ever warping, so this listener is registered
+ * when the first session starts and unregistered when the last one ends (see
+ * {@link CountdownTicker}). While no one is warping the server never dispatches
+ * to it at all.
+ */
+final class SessionGuardListener implements Listener {
+
+    private static final double MOVEMENT_THRESHOLD = 0.1; // Minimum movement distance (in blocks) to cancel countdown
+
+    private final PlayerWarpsPlus plugin;
+    private final WarpCommandListener warps;
+    private boolean registered;
+
+    SessionGuardListener(PlayerWarpsPlus plugin, WarpCommandListener warps) {
+        this.plugin = plugin;
+        this.warps = warps;
+    }
+
+    /**
+     * Start receiving events, if not already registered
+     */
+    synchronized void register() {
+        if (registered) return;
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+        registered = true;
+    }
+
+    /**
+     * Stop receiving events, if registered
+     */
+    synchronized void unregister() {
+        if (!registered) return;
+        HandlerList.unregisterAll(this);
+        registered = false;
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onPlayerMove(PlayerMoveEvent event) {
+        // Head rotation never cancels a countdown, so skip it before touching the session map
+        if (!event.hasChangedPosition()) return;
+
+        WarpSession session = warps.getTicker().get(event.getPlayer().getUniqueId());
+        if (session == null) return;
+
+        switch (session.phase) {
+            case TRANSITION -> {
+                // Player is riding the camera - prevent ANY movement
+                // (FOV mode has no camera; cancelling would undo its lift)
+                if (session.settings.getZoomPath().getMode() != ZoomPath.Mode.FOV) {
+                    event.setCancelled(true);
+                }
+            }
+            case COUNTDOWN -> {
+                // Use a threshold to ignore tiny floating-point position changes that occur naturally
+                // Using distanceSquared is more efficient than distance (avoids sqrt calculation)
+                double distanceSquared = event.getFrom().distanceSquared(event.getTo());
+                if (distanceSquared > MOVEMENT_THRESHOLD * MOVEMENT_THRESHOLD) {
+                    warps.cancelCountdown(event.getPlayer(), WarpStats.CancelCause.MOVE);
+                }
+            }
+            default -> {
+                // Teleporting or arrived - movement no longer matters
+            }
+        }
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onPlayerDamage(EntityDamageEvent event) {
+        // Mob damage is by far the most common case - reject it before any lookup
+        if (!(event.getEntity() instanceof Player player)) return;
+
+        WarpSession session = warps.getTicker().get(player.getUniqueId());
+        if (session == null) return;
+
+        if (session.phase == WarpSession.Phase.TRANSITION) {
+            // Block all damage during transition (zoom) phase - player may clip through blocks
+            event.setCancelled(true);
+        } else if (session.phase == WarpSession.Phase.COUNTDOWN) {
+            // Cancel countdown if player takes damage during countdown phase
+            warps.cancelCountdown(player, WarpStats.CancelCause.DAMAGE);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = false)
+    public void onEntityMount(EntityMountEvent event) {
+        // Allow mounting our camera entities even if another plugin (e.g. WorldGuard) blocks it
+        if (!event.isCancelled() || !(event.getEntity() instanceof Player player)) return;
+
+        WarpSession session = warps.getTicker().get(player.getUniqueId());
+        if (session == null || session.camera == null) return;
+
+        if (event.getMount().equals(session.camera)) {
+            event.setCancelled(false);
+            if (session.settings.isDebug()) {
+                plugin.getLogger().info("Allowed camera mount for " + player.getName() + " (was blocked by another plugin)");
+            }
+        }
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onWarpTeleport(PlayerTeleportEvent event) {
+        WarpSession session = warps.getTicker().get(event.getPlayer().getUniqueId());
+        if (session == null || session.originalLocation == null || session.arrived) return;
+
+        // The warp itself starts where the zoom ended; plugins recording /back should see the ground instead
+        if (session.phase == WarpSession.Phase.TELEPORTING || session.phase == WarpSession.Phase.POST) {
+            event.setFrom(session.originalLocation);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerTeleport(PlayerTeleportEvent event) {
+        WarpSession session = warps.getTicker().get(event.getPlayer().getUniqueId());
+
+        // Only cancel countdown for external teleports during the countdown phase (not during our transition)
+        if (session != null && session.phase == WarpSession.Phase.COUNTDOWN) {
+            warps.cancelCountdown(event.getPlayer(), WarpStats.CancelCause.TELEPORT);
+        }
+    }
+}
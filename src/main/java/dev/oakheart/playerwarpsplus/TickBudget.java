@@ -0,0 +1,126 @@
+package dev.oakheart.playerwarpsplus;
+
+import org.bukkit.Bukkit;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Caps how many expensive cinematic operations run in a single server tick.
+ *
+ * <p>When a warp rush sends many players off in the same second, their zooms
+ * and teleports all fall on the same ticks. Each {@link Operation} has a
+ * per-tick limit; sessions over the limit wait in a first-come, first-served
+ * queue and are served, in order, on the following ticks. At the start of
+ * each tick the head of each queue is granted that tick's permits, so sessions
+ * that arrive later cannot jump ahead of waiting ones just because the ticker
+ * reaches them first.
+ *
+ * <p>Synchronized, since on Folia sessions tick on different region threads.
+ */
+final class TickBudget {
+
+    /**
+     * A kind of rate-limited work
+     */
+    enum Operation {
+        /** Starting a zoom: leasing (possibly spawning) a camera and mounting it */
+        ZOOM_START,
+        /** The warp teleport of a session */
+        TELEPORT
+    }
+
+    private static final class Lane {
+        final ArrayDeque<WarpSession> waiting = new ArrayDeque<>();
+        final Set<WarpSession> granted = new HashSet<>(); // Served from the queue this tick, not yet used
+        int used;
+        int tick = Integer.MIN_VALUE;
+    }
+
+    private final Map<Operation, Lane> lanes = new EnumMap<>(Operation.class);
+    private long deferredTicks; // Session-ticks spent waiting for a permit
+
+    TickBudget() {
+        for (Operation operation : Operation.values()) {
+            lanes.put(operation, new Lane());
+        }
+    }
+
+    /**
+     * Try to take a permit for an operation this tick. A session that doesn't
+     * get one joins the back of the queue (once) and should ask again next tick.
+     *
+     * @param operation The operation to run
+     * @param session   The session that wants to run it
+     * @param limit     Permits per tick (0 = unlimited)
+     * @return true if the operation may run now
+     */
+    synchronized boolean tryAcquire(Operation operation, WarpSession session, int limit) {
+        if (limit <= 0) return true;
+
+        Lane lane = lanes.get(operation);
+        rollOver(lane, limit);
+        if (lane.granted.remove(session)) {
+            session.budgetWait = null;
+            return true;
+        }
+        if (lane.waiting.isEmpty() && lane.used < limit) {
+            lane.used++;
+            return true;
+        }
+
+        if (session.budgetWait != operation) {
+            session.budgetWait = operation;
+            lane.waiting.add(session);
+        }
+        deferredTicks++;
+        return false;
+    }
+
+    /**
+     * Drop a session from every queue, e.g. when it is cancelled while waiting
+     */
+    synchronized void remove(WarpSession session) {
+        if (session.budgetWait == null) return;
+        session.budgetWait = null;
+        for (Lane lane : lanes.values()) {
+            lane.waiting.remove(session);
+            lane.granted.remove(session);
+        }
+    }
+
+    /**
+     * @return Sessions currently queued for an operation
+     */
+    synchronized int getWaiting(Operation operation) {
+        Lane lane = lanes.get(operation);
+        return lane.waiting.size() + lane.granted.size();
+    }
+
+    /**
+     * @return Total ticks sessions have spent waiting for a permit
+     */
+    synchronized long getDeferredTicks() {
+        return deferredTicks;
+    }
+
+    /**
+     * On the first call in a new tick, reset a lane's usage and hand this tick's
+     * permits to the head of its queue
+     */
+    private static void rollOver(Lane lane, int limit) {
+        int tick = Bukkit.getCurrentTick();
+        if (tick == lane.tick) return;
+        lane.tick = tick;
+
+        // Grants a session didn't get round to using carry over and still count
+        lane.used = lane.granted.size();
+        while (lane.used < limit && !lane.waiting.isEmpty()) {
+            lane.granted.add(lane.waiting.poll());
+            lane.used++;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package dev.oakheart.playerwarpsplus;
+
+import dev.oakheart.playerwarpsplus.util.MessageFormatter;
+import dev.oakheart.playerwarpsplus.util.TitleTemplate;
+import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.title.Title;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the titles sessions send during one ticker pass and sends each
+ * distinct title once.
+ *
+ * <p>Players who started warping to the same warp in the same tick share a
+ * timeline, so during a warp rush most of them need exactly the same countdown
+ * title on the same tick. Titles are grouped by template, timings, warp and
+ * countdown value; each group is rendered once and shown to all of its players
+ * through a single {@link Audience#audience(Iterable) forwarding audience} when
+ * the ticker finishes its pass. The cost of a rush then grows with the number
+ * of distinct destinations rather than the number of players.
+ *
+ * <p>Only used on the ticker's thread. On Folia, where every session ticks on
+ * its own region, titles are sent straight away instead.
+ */
+final class TitleBatch {
+
+    private record Key(TitleTemplate title, TitleTemplate subtitle, Title.Times times, String warpName, int secondsLeft) {
+    }
+
+    private record Recipient(Player player, WarpSession session) {
+    }
+
+    private final Map<Key, List<Recipient>> pending = new HashMap<>();
+
+    /**
+     * Queue a title for a session's player, or send it now on Folia
+     */
+    void send(Player player, WarpSession session, TitleTemplate title, TitleTemplate subtitle,
+              Title.Times times, String warpName, int secondsLeft) {
+        if (Schedulers.FOLIA) {
+            MessageFormatter.sendTitle(player, title, subtitle, times, warpName, secondsLeft);
+            return;
+        }
+        pending.computeIfAbsent(new Key(title, subtitle, times, warpName, secondsLeft), key -> new ArrayList<>())
+                .add(new Recipient(player, session));
+    }
+
+    /**
+     * Render and send every queued title. Players whose session ended after the
+     * title was queued (e.g. cancelled later in the same pass) are skipped.
+     *
+     * @param ticker The ticker holding the active sessions
+     */
+    void flush(CountdownTicker ticker) {
+        if (pending.isEmpty()) return;
+
+        for (Map.Entry<Key, List<Recipient>> entry : pending.entrySet()) {
+            List<Player> players = new ArrayList<>(entry.getValue().size());
+            for (Recipient recipient : entry.getValue()) {
+                if (ticker.get(recipient.session().playerId) == recipient.session()) {
+                    players.add(recipient.player());
+                }
+            }
+            if (players.isEmpty()) continue;
+
+            Key key = entry.getKey();
+            MessageFormatter.sendTitle(players.size() == 1 ? players.get(0) : Audience.audience(players),
+                    key.title(), key.subtitle(), key.times(), key.warpName(), key.secondsLeft());
+        }
+        pending.clear();
+    }
+
+    /**
+     * Drop everything queued without sending it
+     */
+    void clear() {
+        pending.clear();
+    }
+}
@@ -4,27 +4,30 @@ import com.olziedev.playerwarps.api.PlayerWarpsAPI;
 import com.olziedev.playerwarps.api.events.warp.PlayerWarpTeleportEvent;
 import com.olziedev.playerwarps.api.player.WPlayer;
 import dev.oakheart.playerwarpsplus.util.MessageFormatter;
+import io.papermc.paper.entity.TeleportFlag;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
-import org.bukkit.entity.Bat;
+import org.bukkit.attribute.Attribute;
+import org.bukkit.attribute.AttributeInstance;
+import org.bukkit.attribute.AttributeModifier;
+import org.bukkit.entity.Display;
+import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
-import org.bukkit.event.player.PlayerJoinEvent;
-import org.bukkit.event.player.PlayerMoveEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.event.player.PlayerTeleportEvent;
-import org.bukkit.event.entity.EntityMountEvent;
 import org.bukkit.permissions.PermissionAttachment;
-import org.bukkit.potion.PotionEffect;
 import org.bukkit.potion.PotionEffectType;
-import org.bukkit.scheduler.BukkitTask;
 import org.bukkit.util.Vector;
+import net.kyori.adventure.sound.Sound;
 import net.kyori.adventure.text.Component;
 
-import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
 import java.util.logging.Level;
 
 /**
@@ -35,7 +38,7 @@ import java.util.logging.Level;
  * <ul>
  *   <li>Configurable countdown timer with title/subtitle messages</li>
  *   <li>Movement and damage cancellation during countdown</li>
- *   <li>Invisible bat-based camera zoom effect</li>
+ *   <li>Camera zoom effect using an invisible display entity or bat, or FOV alone</li>
  *   <li>Blindness/darkness transition effects</li>
  *   <li>Sound effects and customizable messaging</li>
  * </ul>
@@ -47,886 +50,820 @@ public class WarpCommandListener implements Listener {
 
     // Constants for magic numbers
     private static final double BAT_SPAWN_OFFSET = 0.3; // Spawn bat below player to compensate for mount height
-    private static final int INVISIBILITY_DURATION_TICKS = 40; // 2 seconds - enough for transition, safe if player logs out
-    private static final long PRE_TELEPORT_DELAY_TICKS = 2L; // Minimal delay to ensure bat entity is removed before teleport
-    private static final double INITIAL_BAT_SPEED = 0.3; // Starting velocity for bat zoom effect
-    private static final double BAT_ACCELERATION = 0.1; // Velocity increase per tick
-    private static final long INVISIBILITY_APPLICATION_OFFSET_TICKS = 3L; // Apply invisibility 3 ticks before bat mount
-    private static final double MOVEMENT_THRESHOLD = 0.1; // Minimum movement distance (in blocks) to cancel countdown
+    private static final double FOV_LIFT_VELOCITY = 0.4; // Upward kick at the start of an FOV-mode zoom (about a jump)
+    private static final int ARRIVAL_MAX_WAIT_TICKS = 100; // Longest cleanup waits for an asynchronous warp teleport
 
     private final PlayerWarpsPlus plugin;
-    private final Map<UUID, List<BukkitTask>> playerCountdownTasks = new ConcurrentHashMap<>();
-    private final Set<UUID> waitingPlayers = ConcurrentHashMap.newKeySet();
-    private final Set<UUID> transitioningPlayers = ConcurrentHashMap.newKeySet();
-    private final Map<UUID, Bat> playerBats = new ConcurrentHashMap<>();
-    private final Map<UUID, Location> playerOriginalLocations = new ConcurrentHashMap<>(); // Store original location for disconnect safety
-    private final Set<UUID> postCountdownPlayers = ConcurrentHashMap.newKeySet(); // Players who completed countdown, bypass interception
-    private final Map<UUID, Location> pendingRestoreLocations = new ConcurrentHashMap<>(); // Safety: restore location on rejoin if quit-time teleport fails
+    private final CountdownTicker ticker; // Single source of truth for every player's warp state
+    private final SessionGuardListener guard; // Only registered while at least one session is active
+    private final DestinationPreloader preloader;
+    private final CameraPool cameraPool;
+    private final WarpStats stats = new WarpStats();
+    private final TickBudget budget = new TickBudget(); // Spreads zoom starts and teleports of warp rushes over several ticks
+    private final QualityGovernor governor;
+    private final TitleBatch titles = new TitleBatch(); // Countdown titles, sent once per distinct title per tick
+    private final BackLocations backLocations; // Essentials/CMI /back integrations
+    private final RestoreJournal restores; // Where players who quit mid-zoom spawn when they rejoin, kept across restarts
+    private final WarpDestinations destinations = new WarpDestinations(); // Warp locations, looked up once per warp per tick
+
+    public WarpCommandListener(PlayerWarpsPlus plugin) {
+        this.plugin = plugin;
+        this.guard = new SessionGuardListener(plugin, this);
+        this.preloader = new DestinationPreloader(plugin);
+        this.ticker = new CountdownTicker(plugin, this::advance, this::flushTitles, guard);
+        this.cameraPool = new CameraPool(plugin, ticker);
+        this.governor = new QualityGovernor(plugin);
+        this.backLocations = BackLocations.detect(plugin);
+        this.restores = new RestoreJournal(plugin);
+        restores.load();
+    }
 
     /**
-     * Simple data holder for warp information
+     * @return The ticker holding and advancing all active warp sessions
      */
-    private static class WarpData {
-        final String warpName;
-        final Location destination;
-        final UUID playerUuid;
-        final PlayerWarpTeleportEvent originalEvent;
+    public CountdownTicker getTicker() {
+        return ticker;
+    }
 
-        WarpData(String warpName, Location destination, UUID playerUuid, PlayerWarpTeleportEvent originalEvent) {
-            this.warpName = warpName;
-            this.destination = destination;
-            this.playerUuid = playerUuid;
-            this.originalEvent = originalEvent;
-        }
+    /**
+     * @return The preloader warming warp destinations during countdowns
+     */
+    DestinationPreloader getPreloader() {
+        return preloader;
     }
 
-    public WarpCommandListener(PlayerWarpsPlus plugin) {
-        this.plugin = plugin;
+    /**
+     * @return The pool of reusable camera bats
+     */
+    CameraPool getCameraPool() {
+        return cameraPool;
+    }
+
+    /**
+     * @return Counters and latency histograms for /pwp stats
+     */
+    WarpStats getStats() {
+        return stats;
+    }
+
+    /**
+     * @return The per-tick budget for zoom starts and teleports
+     */
+    TickBudget getTickBudget() {
+        return budget;
+    }
+
+    /**
+     * @return The governor scaling effects down while the server lags
+     */
+    QualityGovernor getGovernor() {
+        return governor;
+    }
+
+    /**
+     * @return The journal of locations to restore players to when they rejoin
+     */
+    RestoreJournal getRestores() {
+        return restores;
     }
 
     @EventHandler(priority = EventPriority.HIGHEST)
     public void onWarpTeleport(PlayerWarpTeleportEvent event) {
         if (event.isCancelled()) return;
 
+        long handlerStart = System.nanoTime();
+        try {
+            handleWarpTeleport(event);
+        } finally {
+            stats.eventHandler.recordSince(handlerStart);
+        }
+    }
+
+    private void handleWarpTeleport(PlayerWarpTeleportEvent event) {
         Player player = event.getTeleporter();
         UUID uuid = player.getUniqueId();
 
         // Check if player has bypass permission - if so, let them teleport instantly
         if (player.hasPermission("playerwarpsplus.bypass")) {
-            if (plugin.getConfig().getBoolean("debug", false)) {
+            if (plugin.getSettings().isDebug()) {
                 plugin.getLogger().info(player.getName() + " has bypass permission, allowing instant teleport");
             }
             return; // Let the event proceed normally (instant teleport)
         }
 
-        // Check if this is a post-countdown warp (let it proceed)
-        if (postCountdownPlayers.remove(uuid)) {
-            if (plugin.getConfig().getBoolean("debug", false)) {
+        WarpSession session = ticker.get(uuid);
+
+        // Check if this is the warp fired by our own teleport (let it proceed)
+        if (session != null && session.phase == WarpSession.Phase.TELEPORTING) {
+            session.phase = WarpSession.Phase.POST;
+            if (plugin.getSettings().isDebug()) {
                 plugin.getLogger().info(player.getName() + " completed countdown, allowing warp to proceed");
             }
             return; // Let the event proceed normally
         }
 
-        // Prevent re-entrancy - if player is already in a countdown, cancel the old one first
-        if (waitingPlayers.contains(uuid)) {
-            cancelCountdown(player);
+        // Prevent re-entrancy - if player already has a session, end it first
+        if (session != null) {
+            cancelCountdown(player, WarpStats.CancelCause.OTHER);
+        }
+
+        // On a badly lagging server skip the countdown entirely, as if the player could bypass it
+        QualityGovernor.Tier tier = governor.sample();
+        if (tier == QualityGovernor.Tier.INSTANT) {
+            if (plugin.getSettings().isDebug()) {
+                plugin.getLogger().info("Server is lagging, allowing instant teleport for " + player.getName());
+            }
+            return;
         }
 
-        // Validate and extract warp data BEFORE cancelling the event
+        // Validate and build the session BEFORE cancelling the event
         // This allows PlayerWarps to handle unsafe locations with its own message
-        WarpData warpData = validateAndExtractWarpData(event, player);
-        if (warpData == null) {
+        WarpSession newSession = createSession(event, player, tier);
+        if (newSession == null) {
             return; // Validation failed or unsafe location - let PlayerWarps handle it
         }
 
         // Cancel the immediate teleport and start our countdown
         event.setCancelled(true);
 
-        // Start the countdown sequence
-        startCountdown(player, warpData);
+        // Start loading the destination now so it is ready by the end of the countdown
+        if (newSession.settings.isPreloadEnabled()) {
+            preloader.preload(newSession);
+        }
+
+        // Hand the whole sequence to the shared ticker
+        ticker.start(newSession);
     }
 
     /**
-     * Validates and extracts warp data from the event
+     * Validates the event and creates a session for it, pinned to the current settings snapshot
      *
      * @param event The warp teleport event
      * @param player The player warping
-     * @return WarpData object if valid, null if validation fails
+     * @param tier The effect quality for the session
+     * @return The new session if valid, null if validation fails
      */
-    private WarpData validateAndExtractWarpData(PlayerWarpTeleportEvent event, Player player) {
+    private WarpSession createSession(PlayerWarpTeleportEvent event, Player player, QualityGovernor.Tier tier) {
         // Validate warp data
         if (event.getPlayerWarp() == null) {
             plugin.getLogger().severe("PlayerWarp is null for player: " + player.getName());
             return null;
         }
 
-        if (event.getPlayerWarp().getWarpLocation() == null) {
-            plugin.getLogger().severe("Warp location is null for player: " + player.getName());
-            return null;
-        }
-
         String warpName = event.getPlayerWarp().getWarpName();
-        Location destination = event.getPlayerWarp().getWarpLocation().getLocation();
+        if (warpName != null && warpName.isEmpty()) {
+            warpName = null;
+        }
 
-        // Validate destination
+        // Validate destination; players warping to the same warp in the same tick share the lookup
+        Location destination = destinations.resolve(event, warpName);
         if (destination == null) {
-            plugin.getLogger().severe("Warp destination location is null for player: " + player.getName());
+            plugin.getLogger().severe("Warp location is null for player: " + player.getName());
             return null;
         }
 
         // Validate warp name
-        if (warpName == null || warpName.isEmpty()) {
+        if (warpName == null) {
             plugin.getLogger().warning("Warp name is null or empty for player: " + player.getName());
             warpName = "Unknown";
         }
 
-        return new WarpData(warpName, destination, player.getUniqueId(), event);
+        return new WarpSession(player.getUniqueId(), player.getName(), warpName, destination, event, plugin.getSettings(), tier);
     }
 
     /**
-     * Starts the countdown sequence for a player
+     * Run every step of a session that falls on its current tick.
      *
-     * @param player The player to start countdown for
-     * @param warpData The warp data containing destination and name
+     * <p>Tick 0 is the first countdown message. The zoom starts once the
+     * countdown ends, the final message shows once the zoom ends, and the
+     * teleport happens after the black screen. A few follow-up steps run in the
+     * ticks after the teleport.
+     *
+     * @param session The session to advance
+     * @return true once the session has finished
      */
-    private void startCountdown(Player player, WarpData warpData) {
-        UUID uuid = warpData.playerUuid;
-
-        // Mark player as waiting
-        waitingPlayers.add(uuid);
-
-        // Initialize task list
-        List<BukkitTask> tasks = new ArrayList<>();
-
-        // Get countdown duration from config
-        int duration = getValidatedInt("countdown.duration", 3, 1, 10);
-        int zoomDuration = getValidatedInt("countdown.zoom-duration", 5, 1, 100);
-        int blackDuration = getValidatedInt("countdown.black-duration", 15, 1, 100);
-
-        // Schedule all countdown tasks
-        scheduleCountdownMessages(player, warpData, tasks, duration);
-        scheduleTransitionEffects(player, warpData, tasks, duration);
-        scheduleBatZoom(player, warpData, tasks, duration, zoomDuration);
-        scheduleFinalMessage(player, warpData, tasks, duration, zoomDuration, blackDuration);
-        scheduleTeleport(player, warpData, tasks, duration, zoomDuration, blackDuration);
-
-        // Store tasks for cleanup
-        playerCountdownTasks.put(uuid, tasks);
+    private boolean advance(WarpSession session) {
+        long stepStart = System.nanoTime();
+        try {
+            return step(session);
+        } finally {
+            stats.sessionStep.recordSince(stepStart);
+        }
     }
 
-    /**
-     * Schedules countdown message tasks (3, 2, 1)
-     *
-     * @param player The player
-     * @param warpData The warp data
-     * @param tasks List to add tasks to
-     * @param duration Countdown duration in seconds
-     */
-    private void scheduleCountdownMessages(Player player, WarpData warpData, List<BukkitTask> tasks, int duration) {
-        UUID uuid = warpData.playerUuid;
-
-        // Schedule countdown messages (3, 2, 1)
-        for (int i = 0; i < duration; i++) {
-            final int secondsLeft = duration - i;
-            long delay = i * 20L;
-
-            BukkitTask task = Bukkit.getScheduler().runTaskLater(plugin, () -> {
-                try {
-                    if (!waitingPlayers.contains(uuid)) return;
-                    handleCountdownMessage(player, warpData.warpName, secondsLeft);
-                } catch (Exception e) {
-                    plugin.getLogger().log(Level.SEVERE, "Error in countdown message task for " + player.getName(), e);
-                    cancelCountdown(player);
-                }
-            }, delay);
-
-            tasks.add(task);
+    private boolean step(WarpSession session) {
+        int tick = session.tick++;
+        Player player = Bukkit.getPlayer(session.playerId);
+        if (player == null) {
+            // Quitting ends the session; if we got here the player left between ticks
+            return true;
         }
-    }
 
-    /**
-     * Schedules transition effect tasks (darkness, blindness, invisibility)
-     *
-     * @param player The player
-     * @param warpData The warp data
-     * @param tasks List to add tasks to
-     * @param duration Countdown duration in seconds
-     */
-    private void scheduleTransitionEffects(Player player, WarpData warpData, List<BukkitTask> tasks, int duration) {
-        UUID uuid = warpData.playerUuid;
-
-        // Apply darkness/blindness early
-        long darknessDelay = (duration - 1) * 20L;
-        BukkitTask darknessTask = Bukkit.getScheduler().runTaskLater(plugin, () -> {
-            try {
-                if (!waitingPlayers.contains(uuid)) return;
-
-                if (plugin.getConfig().getBoolean("countdown.blindness.enabled", true)) {
-                    applyBlindness(player);
-                }
-                if (plugin.getConfig().getBoolean("countdown.darkness.enabled", true)) {
-                    applyDarkness(player);
-                }
+        PluginSettings settings = session.settings;
+        try {
+            // Teleport gate: cut the black screen short once the destination is loaded,
+            // or hold it (up to max-wait ticks) while it is still loading
+            if (tick >= session.earliestTeleportTick && tick < session.teleportTick && session.destinationReady) {
+                tick = session.teleportTick;
+                session.tick = tick + 1;
+            } else if (tick == session.teleportTick && !session.destinationReady
+                    && session.heldTicks < settings.getPreloadMaxWait()) {
+                return holdBlackScreen(player, session, false);
+            }
+            if (tick == session.teleportTick && !budget.tryAcquire(TickBudget.Operation.TELEPORT, session,
+                    settings.getTeleportBudget())) {
+                // Too many teleports this tick - wait for a turn behind the black screen
+                return holdBlackScreen(player, session, true);
+            }
 
-                if (plugin.getConfig().getBoolean("debug", false)) {
-                    plugin.getLogger().info("Applied darkness/blindness early for " + player.getName());
-                }
-            } catch (Exception e) {
-                plugin.getLogger().log(Level.SEVERE, "Error in darkness task for " + player.getName(), e);
-                cancelCountdown(player);
+            if (tick < session.zoomTick && tick % 20 == 0) {
+                handleCountdownMessage(player, session, session.secondsLeft());
             }
-        }, darknessDelay);
-        tasks.add(darknessTask);
-
-        // Apply invisibility just before bat mounting
-        long invisDelay = duration * 20L - INVISIBILITY_APPLICATION_OFFSET_TICKS;
-        BukkitTask invisTask = Bukkit.getScheduler().runTaskLater(plugin, () -> {
-            try {
-                if (!waitingPlayers.contains(uuid)) return;
-
-                player.addPotionEffect(new PotionEffect(
-                        PotionEffectType.INVISIBILITY,
-                        INVISIBILITY_DURATION_TICKS,
-                        0,
-                        false,
-                        false
-                ));
-
-                if (plugin.getConfig().getBoolean("debug", false)) {
-                    plugin.getLogger().info("Applied invisibility for " + player.getName());
-                }
-            } catch (Exception e) {
-                plugin.getLogger().log(Level.SEVERE, "Error in invisibility task for " + player.getName(), e);
-                cancelCountdown(player);
+            if (tick == session.darknessTick && session.tier.hasEffects()) {
+                applyTransitionEffects(player, settings);
+            }
+            // An FOV zoom never leaves the ground, so invisibility would only hide the player from others
+            if (tick == session.invisibilityTick && session.tier.hasZoom()
+                    && settings.getZoomPath().getMode() != ZoomPath.Mode.FOV) {
+                applyInvisibility(player, settings);
             }
-        }, invisDelay);
-        tasks.add(invisTask);
-    }
 
-    /**
-     * Schedules bat zoom effect task
-     *
-     * @param player The player
-     * @param warpData The warp data
-     * @param tasks List to add tasks to
-     * @param duration Countdown duration in seconds
-     * @param zoomDuration Zoom effect duration in ticks
-     */
-    private void scheduleBatZoom(Player player, WarpData warpData, List<BukkitTask> tasks, int duration, int zoomDuration) {
-        UUID uuid = warpData.playerUuid;
-
-        long zoomDelay = duration * 20L;
-        BukkitTask zoomTask = Bukkit.getScheduler().runTaskLater(plugin, () -> {
-            try {
-                if (!waitingPlayers.contains(uuid)) return;
-
-                transitioningPlayers.add(uuid);
-
-                Location playerLoc = player.getLocation();
-                // Store original location for disconnect safety - if player logs out during zoom,
-                // they'll be teleported back here instead of being stuck in a wall
-                playerOriginalLocations.put(uuid, playerLoc.clone());
-
-                Location batLoc = playerLoc.clone();
-                batLoc.setY(batLoc.getY() - BAT_SPAWN_OFFSET);
-
-                Bat bat = player.getWorld().spawn(batLoc, Bat.class);
-                bat.setInvisible(true);
-                bat.setInvulnerable(true);
-                bat.setSilent(true);
-                bat.setAI(false);
-                bat.setGravity(false);
-                bat.setAwake(true);
-
-                playerBats.put(uuid, bat);
-
-                // Temporarily grant WorldGuard bypass to prevent "can't ride that here" denial.
-                // This is fully synchronous — addPassenger fires EntityMountEvent on the same tick,
-                // so the bypass is removed before any other game logic can use it.
-                PermissionAttachment wgBypass = null;
-                if (Bukkit.getPluginManager().getPlugin("WorldGuard") != null) {
-                    wgBypass = player.addAttachment(plugin);
-                    wgBypass.setPermission("worldguard.region.bypass." + player.getWorld().getName(), true);
-                    player.recalculatePermissions();
+            if (tick == session.zoomTick) {
+                // Movement is frozen from here on, even while the zoom waits for its turn
+                session.phase = WarpSession.Phase.TRANSITION;
+            }
+            if (session.zoomStartTick < 0) {
+                // A zoom that has to wait for the budget starts late and is cut short, so the
+                // final message and black screen stay on schedule; one still waiting then is skipped
+                if (tick >= session.zoomTick && tick < session.finalMessageTick && canStartZoom(session)) {
+                    startZoom(player, session);
+                    session.zoomStartTick = tick;
+                } else if (tick == session.finalMessageTick) {
+                    budget.remove(session);
                 }
+            } else if (tick < session.teleportTick) {
+                moveCamera(player, session, tick - session.zoomStartTick);
+            }
 
-                bat.addPassenger(player);
+            if (tick == session.finalMessageTick) {
+                handleFinalMessage(player, session);
 
-                if (wgBypass != null) {
-                    wgBypass.remove();
-                    player.recalculatePermissions();
+                if (settings.isDebug()) {
+                    plugin.getLogger().info("Showing final message for " + player.getName());
                 }
+            }
 
-                // Apply speed effect to widen FOV during zoom
-                int speedAmplifier = getValidatedInt("countdown.zoom-speed-amplifier", 4, 0, 10);
-                player.addPotionEffect(new PotionEffect(
-                        PotionEffectType.SPEED,
-                        zoomDuration + 20, // Duration slightly longer than zoom
-                        speedAmplifier,
-                        false,
-                        false
-                ));
-
-                // Calculate backwards direction based on yaw only (ignore pitch)
-                // This ensures consistent movement regardless of where player is looking vertically
-                double yawRadians = Math.toRadians(playerLoc.getYaw());
-                Vector direction = new Vector(
-                        Math.sin(yawRadians),   // Backwards X (opposite of forward)
-                        0.5,                     // Upward movement
-                        -Math.cos(yawRadians)   // Backwards Z (opposite of forward)
-                ).normalize();
-
-                final double[] speed = {INITIAL_BAT_SPEED};
-                final BukkitTask[] moveTask = new BukkitTask[1];
-                moveTask[0] = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
-                    try {
-                        if (!transitioningPlayers.contains(uuid) || !bat.isValid()) {
-                            if (moveTask[0] != null) {
-                                moveTask[0].cancel();
-                            }
-                            return;
-                        }
-
-                        speed[0] += BAT_ACCELERATION;
-                        Vector movement = direction.clone().multiply(speed[0]);
-                        // Use teleportation instead of velocity - velocity doesn't work reliably with passengers
-                        // Must use RETAIN_PASSENGERS flag or passengers won't move with the entity
-                        bat.teleport(bat.getLocation().add(movement),
-                                io.papermc.paper.entity.TeleportFlag.EntityState.RETAIN_PASSENGERS);
-                        player.sendActionBar(Component.empty());
-                    } catch (Exception e) {
-                        plugin.getLogger().log(Level.SEVERE, "Error in bat movement task for " + player.getName(), e);
-                        if (moveTask[0] != null) {
-                            moveTask[0].cancel();
-                        }
-                        cancelCountdown(player);
-                    }
-                }, 0L, 1L);
-
-                tasks.add(moveTask[0]);
-
-                if (plugin.getConfig().getBoolean("countdown.final-sound.enabled", true)) {
-                    playFinalSound(player);
+            if (tick == session.teleportTick) {
+                beginTeleport(player, session);
+            } else if (tick == session.warpTick) {
+                performWarpTeleport(player, session);
+            } else if (tick == session.cleanupTick) {
+                if (!session.arrived && session.arrivalWaitTicks++ < ARRIVAL_MAX_WAIT_TICKS) {
+                    // The asynchronous warp teleport hasn't completed yet - keep the screen black
+                    session.tick = tick;
+                    return false;
                 }
-
-                if (plugin.getConfig().getBoolean("debug", false)) {
-                    plugin.getLogger().info("Player " + player.getName() + " is now riding invisible bat");
+                cleanupEffects(player, settings);
+                // The player is at the destination now and keeps it loaded themselves
+                preloader.release(session);
+                // Set after arriving, so /back plugins' own teleport listeners can't overwrite it
+                if (session.originalLocation != null) {
+                    backLocations.record(player, session.originalLocation);
                 }
-            } catch (Exception e) {
-                plugin.getLogger().log(Level.SEVERE, "Error in zoom task for " + player.getName(), e);
-                cancelCountdown(player);
             }
-        }, zoomDelay);
-        tasks.add(zoomTask);
-    }
 
-    /**
-     * Schedules final message task
-     *
-     * @param player The player
-     * @param warpData The warp data
-     * @param tasks List to add tasks to
-     * @param duration Countdown duration in seconds
-     * @param zoomDuration Zoom duration in ticks
-     * @param blackDuration Black screen duration in ticks
-     */
-    private void scheduleFinalMessage(Player player, WarpData warpData, List<BukkitTask> tasks, int duration, int zoomDuration, int blackDuration) {
-        UUID uuid = warpData.playerUuid;
-
-        long zoomDelay = duration * 20L;
-        long blackDelay = zoomDelay + zoomDuration;
-        BukkitTask blackTask = Bukkit.getScheduler().runTaskLater(plugin, () -> {
-            try {
-                if (!waitingPlayers.contains(uuid)) return;
-
-                handleFinalMessage(player, warpData.warpName);
+            if (tick == session.warpEventExpiryTick && session.phase == WarpSession.Phase.TELEPORTING) {
+                // Stop letting warp events through in case the API teleported
+                // directly without firing a new event
+                session.phase = WarpSession.Phase.POST;
+            }
 
-                if (plugin.getConfig().getBoolean("debug", false)) {
-                    plugin.getLogger().info("Showing final message for " + player.getName());
+            if (tick == session.endTick) {
+                // Optionally play arrival sound at destination
+                if (session.tier.hasEffects()) {
+                    playSound(player, settings, settings.getArrivalSound());
                 }
-            } catch (Exception e) {
-                plugin.getLogger().log(Level.SEVERE, "Error in final message task for " + player.getName(), e);
-                cancelCountdown(player);
+                return true;
             }
-        }, blackDelay);
-        tasks.add(blackTask);
+            return false;
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.SEVERE, "Error in countdown step " + tick + " for " + player.getName(), e);
+            cancelCountdown(player, WarpStats.CancelCause.OTHER);
+            return true;
+        }
     }
 
     /**
-     * Schedules the actual teleport task
+     * Hold a session at its teleport tick for another tick, keeping the screen black
      *
-     * @param player The player
-     * @param warpData The warp data
-     * @param tasks List to add tasks to
-     * @param duration Countdown duration in seconds
-     * @param zoomDuration Zoom duration in ticks
-     * @param blackDuration Black screen duration in ticks
-     */
-    private void scheduleTeleport(Player player, WarpData warpData, List<BukkitTask> tasks, int duration, int zoomDuration, int blackDuration) {
-        UUID uuid = warpData.playerUuid;
-
-        long zoomDelay = duration * 20L;
-        long teleportDelay = zoomDelay + zoomDuration + blackDuration;
-        BukkitTask teleportTask = Bukkit.getScheduler().runTaskLater(plugin, () -> {
-            try {
-                if (!waitingPlayers.contains(uuid)) return;
-
-                // Clean up countdown state
-                waitingPlayers.remove(uuid);
-                transitioningPlayers.remove(uuid);
-                playerCountdownTasks.remove(uuid);
-
-                // Get the original location before the bat zoom started
-                // We'll teleport the player here first so /back plugins record this as the "previous location"
-                Location originalLocation = playerOriginalLocations.remove(uuid);
-
-                // Remove player from bat and despawn it BEFORE teleporting
-                Bat bat = playerBats.remove(uuid);
-                if (bat != null && bat.isValid()) {
-                    bat.removePassenger(player);
-                    bat.remove();
-                }
-
-                // Teleport player back to original ground location first
-                // This ensures /back plugins (Essentials, CMI, etc.) record this as the "last location"
-                // instead of the mid-air bat position
-                if (originalLocation != null) {
-                    player.teleport(originalLocation);
-                }
-
-                // Now perform the actual warp teleport (on next tick to ensure location is registered)
-                Bukkit.getScheduler().runTaskLater(plugin, () -> {
-                    if (!player.isOnline()) return;
-
-                    // Mark player as post-countdown so if the teleport triggers a new event, it passes through
-                    postCountdownPlayers.add(uuid);
-
-                    // Use PlayerWarps API to teleport directly
-                    // Wrapped in try-catch because the stored warp reference may be stale
-                    // (e.g., warp deleted or modified during the countdown)
-                    boolean teleported = false;
-                    try {
-                        WPlayer warpPlayer = PlayerWarpsAPI.getInstance().getWarpPlayer(uuid);
-                        if (warpPlayer != null && warpData.originalEvent.getPlayerWarp() != null
-                                && warpData.originalEvent.getPlayerWarp().getWarpLocation() != null) {
-                            warpData.originalEvent.getPlayerWarp().getWarpLocation()
-                                    .teleportLocation(player, warpPlayer, warpData.originalEvent);
-                            teleported = true;
-                        }
-                    } catch (Exception e) {
-                        plugin.getLogger().log(Level.WARNING,
-                                "PlayerWarps API teleport failed for " + player.getName() + ", falling back to command", e);
-                    }
+     * @param forBudget true if waiting for a teleport permit rather than the destination;
+     *                  counted separately so it doesn't use up the preload max-wait
+     * @return false, as the session isn't finished
+     */
+    private boolean holdBlackScreen(Player player, WarpSession session, boolean forBudget) {
+        if (session.heldTicks + session.budgetHeldTicks == 0 && session.tier.hasEffects()) {
+            // Keep the screen black for the extra wait
+            applyTransitionEffects(player, session.settings);
+        }
+        if (forBudget) {
+            session.budgetHeldTicks++;
+        } else {
+            session.heldTicks++;
+        }
+        session.tick = session.teleportTick;
+        return false;
+    }
 
-                    if (!teleported) {
-                        // Fallback to command if API fails (warp may have been deleted during countdown)
-                        String warpCommand = plugin.getConfig().getString("warp-command", "pw");
-                        player.performCommand(warpCommand + " " + warpData.warpName);
-                    }
+    /**
+     * @return true if the session's zoom may start this tick (FOV zooms spawn nothing and are never limited)
+     */
+    private boolean canStartZoom(WarpSession session) {
+        return session.settings.getZoomPath().getMode() == ZoomPath.Mode.FOV
+                || budget.tryAcquire(TickBudget.Operation.ZOOM_START, session, session.settings.getZoomStartBudget());
+    }
 
-                    // Clean up post-countdown flag after a short delay in case the API
-                    // teleported directly without firing a new event
-                    Bukkit.getScheduler().runTaskLater(plugin, () -> postCountdownPlayers.remove(uuid), 5L);
-                }, 1L);
-
-                // Clean up effects after teleport completes
-                Bukkit.getScheduler().runTaskLater(plugin, () -> {
-                    if (player.isOnline()) {
-                        // Remove invisibility and speed effects
-                        player.removePotionEffect(PotionEffectType.INVISIBILITY);
-                        player.removePotionEffect(PotionEffectType.SPEED);
-
-                        // Optionally play arrival sound at destination
-                        if (plugin.getConfig().getBoolean("countdown.arrival-sound.enabled", false)) {
-                            Bukkit.getScheduler().runTaskLater(plugin, () -> {
-                                if (player.isOnline()) {
-                                    playArrivalSound(player);
-                                }
-                            }, 8L);
-                        }
-                    }
-                }, PRE_TELEPORT_DELAY_TICKS);
+    /**
+     * Apply darkness/blindness early so it has time to fade in
+     */
+    private void applyTransitionEffects(Player player, PluginSettings settings) {
+        if (settings.getBlindness() != null) {
+            player.addPotionEffect(settings.getBlindness());
+        }
+        // Darkness gives a smoother black screen transition
+        if (settings.getDarkness() != null) {
+            player.addPotionEffect(settings.getDarkness());
+        }
 
-                if (plugin.getConfig().getBoolean("debug", false)) {
-                    plugin.getLogger().info("Teleported " + player.getName() + " to " + warpData.warpName);
-                }
-            } catch (Exception e) {
-                plugin.getLogger().log(Level.SEVERE, "Error in teleport task for " + player.getName(), e);
-                cancelCountdown(player);
-            }
-        }, teleportDelay);
-        tasks.add(teleportTask);
+        if (settings.isDebug()) {
+            plugin.getLogger().info("Applied darkness/blindness early for " + player.getName());
+        }
     }
 
-    @EventHandler(priority = EventPriority.HIGHEST)
-    public void onPlayerMove(PlayerMoveEvent event) {
-        Player player = event.getPlayer();
-        UUID uuid = player.getUniqueId();
-
-        if (!waitingPlayers.contains(uuid)) return;
+    /**
+     * Apply invisibility just before the camera is mounted
+     */
+    private void applyInvisibility(Player player, PluginSettings settings) {
+        player.addPotionEffect(settings.getInvisibility());
 
-        // If player is in transition (spectator mode), prevent ANY movement
-        if (transitioningPlayers.contains(uuid)) {
-            // Cancel the movement event completely
-            event.setCancelled(true);
-            return;
+        if (settings.isDebug()) {
+            plugin.getLogger().info("Applied invisibility for " + player.getName());
         }
+    }
 
-        // Check for actual position change (not just head rotation)
-        // Use a threshold to ignore tiny floating-point position changes that occur naturally
-        Location from = event.getFrom();
-        Location to = event.getTo();
+    /**
+     * Start the zoom: mount the player on an invisible camera entity, or in FOV
+     * mode only lift them slightly, and widen their FOV
+     */
+    private void startZoom(Player player, WarpSession session) {
+        PluginSettings settings = session.settings;
+        session.phase = WarpSession.Phase.TRANSITION;
+
+        Location playerLoc = player.getLocation();
+        // Store original location for disconnect safety - if player logs out during zoom,
+        // they'll spawn back here instead of being stuck in a wall - and as the /back location
+        session.originalLocation = playerLoc.clone();
+
+        ZoomPath.Mode mode = settings.getZoomPath().getMode();
+        if (mode == ZoomPath.Mode.FOV) {
+            // No camera entity: widen FOV through the movement speed attribute and give a brief lift
+            applyFovModifier(player, settings);
+            player.setVelocity(new Vector(0, FOV_LIFT_VELOCITY, 0));
+        } else {
+            mountCamera(player, session, playerLoc, mode);
+
+            // Apply speed effect to widen FOV during zoom
+            player.addPotionEffect(settings.getZoomSpeed());
+        }
 
-        // Calculate distance moved
-        double distanceSquared = from.distanceSquared(to);
+        playSound(player, settings, settings.getFinalSound());
 
-        // Only cancel if player has actually moved beyond the threshold
-        // Using distanceSquared is more efficient than distance (avoids sqrt calculation)
-        if (distanceSquared > MOVEMENT_THRESHOLD * MOVEMENT_THRESHOLD) {
-            cancelCountdown(player);
+        if (settings.isDebug()) {
+            plugin.getLogger().info("Started " + mode.name().toLowerCase(Locale.ROOT) + " zoom for " + player.getName());
         }
     }
 
-    @EventHandler(priority = EventPriority.HIGHEST)
-    public void onPlayerDamage(org.bukkit.event.entity.EntityDamageEvent event) {
-        if (!(event.getEntity() instanceof Player player)) return;
-
-        UUID uuid = player.getUniqueId();
+    /**
+     * Lease a camera entity, mount the player on it and work out which way it will fly
+     */
+    private void mountCamera(Player player, WarpSession session, Location playerLoc, ZoomPath.Mode mode) {
+        Location cameraLoc = playerLoc.clone();
+        if (mode == ZoomPath.Mode.BAT) {
+            cameraLoc.setY(cameraLoc.getY() - BAT_SPAWN_OFFSET);
+        }
 
-        // Block all damage during transition (zoom) phase - player may clip through blocks
-        if (transitioningPlayers.contains(uuid)) {
-            event.setCancelled(true);
-            return;
+        // Leased cameras are only shown to their rider, so other players receive no packets for them
+        long leaseStart = System.nanoTime();
+        Entity camera = cameraPool.lease(session, player, cameraLoc, mode);
+        stats.cameraLease.recordSince(leaseStart);
+        session.camera = camera;
+        session.zoomOrigin = cameraLoc;
+        session.zoomTarget = cameraLoc.clone();
+
+        long mountStart = System.nanoTime();
+        PluginSettings settings = session.settings;
+        if (settings.isMountBypassAttachment() && Bukkit.getPluginManager().getPlugin("WorldGuard") != null) {
+            // Legacy strategy: temporarily grant WorldGuard bypass so it never denies the mount.
+            // Adding and removing the attachment each rebuilds the player's permissions.
+            // This is fully synchronous — addPassenger fires EntityMountEvent on the same tick,
+            // so the bypass is removed before any other game logic can use it.
+            PermissionAttachment wgBypass = player.addAttachment(plugin);
+            wgBypass.setPermission("worldguard.region.bypass." + player.getWorld().getName(), true);
+            camera.addPassenger(player);
+            wgBypass.remove();
+        } else {
+            // A plugin denying the mount (e.g. WorldGuard's ride flag) is overridden by
+            // SessionGuardListener#onEntityMount, so no permission changes are needed
+            camera.addPassenger(player);
         }
 
-        // Cancel countdown if player takes damage during countdown phase
-        if (waitingPlayers.contains(uuid)) {
-            cancelCountdown(player);
+        if (settings.isDebug()) {
+            plugin.getLogger().info(String.format("Mounted %s on camera in %.3f ms (%s strategy)", player.getName(),
+                    (System.nanoTime() - mountStart) / 1_000_000.0,
+                    settings.isMountBypassAttachment() ? "attachment" : "event"));
         }
-    }
 
-    @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = false)
-    public void onEntityMount(EntityMountEvent event) {
-        // Allow mounting our tracked bats even if another plugin (e.g. WorldGuard) blocks it
-        if (!(event.getEntity() instanceof Player player)) return;
+        // Calculate backwards direction based on yaw only (ignore pitch)
+        // This ensures consistent movement regardless of where player is looking vertically
+        double yawRadians = Math.toRadians(playerLoc.getYaw());
+        session.zoomDirection = new Vector(
+                Math.sin(yawRadians),   // Backwards X (opposite of forward)
+                0.5,                     // Upward movement
+                -Math.cos(yawRadians)   // Backwards Z (opposite of forward)
+        ).normalize();
+    }
 
-        UUID uuid = player.getUniqueId();
-        Bat bat = playerBats.get(uuid);
+    /**
+     * Widen the player's FOV with a transient movement speed modifier (FOV zoom mode)
+     */
+    private void applyFovModifier(Player player, PluginSettings settings) {
+        AttributeInstance speed = player.getAttribute(Attribute.MOVEMENT_SPEED);
+        if (speed == null) return;
+
+        AttributeModifier modifier = settings.getZoomFovModifier();
+        // A previous warp may not have cleaned up yet - adding the same key twice throws
+        speed.removeModifier(modifier.getKey());
+        speed.addTransientModifier(modifier);
+    }
 
-        if (bat != null && event.getMount().equals(bat)) {
-            if (event.isCancelled()) {
-                event.setCancelled(false);
-                if (plugin.getConfig().getBoolean("debug", false)) {
-                    plugin.getLogger().info("Allowed bat mount for " + player.getName() + " (was blocked by another plugin)");
-                }
-            }
+    /**
+     * Remove the FOV zoom modifier, if present
+     */
+    private void removeFovModifier(Player player, PluginSettings settings) {
+        AttributeInstance speed = player.getAttribute(Attribute.MOVEMENT_SPEED);
+        if (speed != null) {
+            speed.removeModifier(settings.getZoomFovModifier().getKey());
         }
     }
 
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onPlayerTeleport(PlayerTeleportEvent event) {
-        UUID uuid = event.getPlayer().getUniqueId();
+    /**
+     * Move the camera along the zoom path.
+     *
+     * <p>A bat camera is moved to the next point of the path every tick. A display
+     * camera is only moved on keyframe ticks, with a teleport duration so the
+     * client interpolates the motion until the next keyframe; the first move is
+     * sent the tick after mounting so the client already has the entity.
+     *
+     * @param step Ticks since the zoom started
+     */
+    private void moveCamera(Player player, WarpSession session, int step) {
+        Entity camera = session.camera;
+        if (session.phase != WarpSession.Phase.TRANSITION || camera == null || !camera.isValid()) return;
 
-        // Only cancel countdown for external teleports during the waiting phase (not during our transition)
-        if (waitingPlayers.contains(uuid) && !transitioningPlayers.contains(uuid)) {
-            cancelCountdown(event.getPlayer());
+        if (step == 1) {
+            // Clear the "press sneak to dismount" hint the client shows when mounting
+            player.sendActionBar(Component.empty());
         }
-    }
 
-    @EventHandler(priority = EventPriority.HIGHEST)
-    public void onPlayerQuit(PlayerQuitEvent event) {
-        // Clean up countdown tasks for disconnecting players
-        Player player = event.getPlayer();
-        UUID uuid = player.getUniqueId();
+        ZoomPath path = session.settings.getZoomPath();
+        int target;
+        if (camera instanceof Display display) {
+            target = path.getKeyframeTarget(step - 1);
+            if (target == 0) return;
+            display.setTeleportDuration(target - (step - 1));
+        } else {
+            if (step > session.settings.getZoomDuration() && !path.continuesAfterZoom()) return; // Path finished - hold position
+            target = step;
+        }
 
-        if (waitingPlayers.contains(uuid) || playerCountdownTasks.containsKey(uuid)) {
-            // If player disconnects during zoom, teleport them back to original location
-            // This prevents them from being stuck in walls when they log back in
-            Location originalLocation = playerOriginalLocations.get(uuid);
-            if (originalLocation != null && transitioningPlayers.contains(uuid)) {
-                player.teleport(originalLocation);
-                // Also store as pending restore in case the quit-time teleport doesn't persist
-                pendingRestoreLocations.put(uuid, originalLocation);
-                if (plugin.getConfig().getBoolean("debug", false)) {
-                    plugin.getLogger().info("Teleported " + player.getName() + " back to original location on disconnect");
-                }
-            }
+        // Points are absolute offsets from the start, so nothing accumulates or allocates per tick
+        double offset = path.getOffset(target);
+        Location origin = session.zoomOrigin;
+        Vector direction = session.zoomDirection;
+        Location destination = session.zoomTarget;
+        destination.set(origin.getX() + direction.getX() * offset,
+                origin.getY() + direction.getY() * offset,
+                origin.getZ() + direction.getZ() * offset);
+
+        // Use teleportation instead of velocity - velocity doesn't work reliably with passengers
+        // Must use RETAIN_PASSENGERS flag or passengers won't move with the entity
+        Schedulers.teleport(camera, destination, TeleportFlag.EntityState.RETAIN_PASSENGERS);
+    }
 
-            cancelCountdown(player);
+    /**
+     * End the countdown and dismount the player
+     */
+    private void beginTeleport(Player player, WarpSession session) {
+        // From here on the warp can no longer be cancelled
+        session.phase = WarpSession.Phase.TELEPORTING;
+
+        // Dismount the player and return the camera to the pool BEFORE teleporting
+        // The player stays where the zoom ended until the warp: /back plugins are given the
+        // original ground location instead (see BackLocations), which saves a teleport
+        Entity camera = session.camera;
+        session.camera = null;
+        if (camera != null) {
+            cameraPool.release(camera, player);
+        }
 
-            if (plugin.getConfig().getBoolean("debug", false)) {
-                plugin.getLogger().info("Cleaned up countdown tasks for disconnecting player: " + player.getName());
-            }
+        if (session.settings.isDebug()) {
+            plugin.getLogger().info("Sending " + player.getName() + " to " + session.warpName);
         }
     }
 
-    @EventHandler
-    public void onPlayerJoin(PlayerJoinEvent event) {
-        UUID uuid = event.getPlayer().getUniqueId();
-        Location restoreLocation = pendingRestoreLocations.remove(uuid);
-        if (restoreLocation != null) {
-            // Delay by 1 tick to ensure the player is fully loaded
-            Bukkit.getScheduler().runTaskLater(plugin, () -> {
-                if (event.getPlayer().isOnline()) {
-                    event.getPlayer().teleport(restoreLocation);
-                    if (plugin.getConfig().getBoolean("debug", false)) {
-                        plugin.getLogger().info("Restored " + event.getPlayer().getName() + " to pre-zoom location on rejoin");
-                    }
-                }
-            }, 1L);
+    /**
+     * Perform the actual warp teleport (one tick after the dismount, so the
+     * client has left the camera)
+     */
+    private void performWarpTeleport(Player player, WarpSession session) {
+        // PlayerWarps teleports synchronously, which Folia refuses for a destination in another region
+        if (Schedulers.FOLIA || session.settings.isAsyncTeleport()) {
+            teleportAsync(player, session);
+            return;
         }
+        teleportThroughPlayerWarps(player, session);
     }
 
     /**
-     * Handle countdown message (3, 2, 1)
+     * Warp with a direct asynchronous teleport. The destination's chunks load off
+     * the main thread; cleanup waits for the completion, which falls back to
+     * PlayerWarps if the teleport was refused. On Folia there is no synchronous
+     * teleport to fall back to, so the player is put back where the zoom started.
      */
-    private void handleCountdownMessage(Player player, String warpName, int secondsLeft) {
-        String titleText = plugin.getConfig().getString("countdown.title", "<#f9e59d>ᴡᴀʀᴘɪɴɢ ɪɴ %seconds%");
-        String subtitleText = plugin.getConfig().getString("countdown.subtitle", "<white>ᴅᴏ ɴᴏᴛ ᴍᴏᴠᴇ");
+    private void teleportAsync(Player player, WarpSession session) {
+        player.teleportAsync(session.destination, PlayerTeleportEvent.TeleportCause.PLUGIN)
+                .whenComplete((success, error) -> {
+                    if (Boolean.TRUE.equals(success)) {
+                        arrive(session);
+                        return;
+                    }
+                    if (error != null) {
+                        plugin.getLogger().log(Level.WARNING, "Asynchronous warp teleport failed for "
+                                + session.playerName, error);
+                    }
+                    // Looked up again rather than captured, so a player who quit meanwhile isn't retained
+                    Player current = Bukkit.getPlayer(session.playerId);
+                    if (current == null) return;
+
+                    // Cancelled by another plugin or failed - back on the player's own thread
+                    Schedulers.runLater(plugin, current, () -> {
+                        Player target = Bukkit.getPlayer(session.playerId);
+                        if (target == null) return;
+                        if (Schedulers.FOLIA) {
+                            returnToGround(target, session);
+                        } else {
+                            teleportThroughPlayerWarps(target, session);
+                        }
+                    }, 1L);
+                });
+    }
+
+    private void teleportThroughPlayerWarps(Player player, WarpSession session) {
+        // The session is TELEPORTING, so the warp event this fires passes straight through
 
-        // Get timing from config (0-200 ticks reasonable range)
-        int fadeIn = getValidatedInt("countdown.title-timing.fade-in", 10, 0, 200);
-        int stay = getValidatedInt("countdown.title-timing.stay", 40, 0, 200);
-        int fadeOut = getValidatedInt("countdown.title-timing.fade-out", 10, 0, 200);
+        // Use PlayerWarps API to teleport directly
+        // Wrapped in try-catch because the stored warp reference may be stale
+        // (e.g., warp deleted or modified during the countdown)
+        PlayerWarpTeleportEvent originalEvent = session.originalEvent;
+        boolean teleported = false;
+        try {
+            WPlayer warpPlayer = PlayerWarpsAPI.getInstance().getWarpPlayer(session.playerId);
+            if (warpPlayer != null && originalEvent.getPlayerWarp() != null
+                    && originalEvent.getPlayerWarp().getWarpLocation() != null) {
+                long teleportStart = System.nanoTime();
+                originalEvent.getPlayerWarp().getWarpLocation()
+                        .teleportLocation(player, warpPlayer, originalEvent);
+                stats.teleportLocation.recordSince(teleportStart);
+                teleported = true;
+            }
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.WARNING,
+                    "PlayerWarps API teleport failed for " + player.getName() + ", falling back to command", e);
+        }
 
-        // Send title
-        MessageFormatter.sendTitle(player, titleText, subtitleText, fadeIn, stay, fadeOut,
-                warpName, secondsLeft);
+        if (!teleported) {
+            // Fallback to command if API fails (warp may have been deleted during countdown)
+            player.performCommand(session.settings.getWarpCommand() + " " + session.warpName);
+            stats.recordCommandFallback();
+        }
 
-        // Play sound
-        playCountdownSound(player, secondsLeft);
+        arrive(session);
     }
 
     /**
-     * Handle final message (black screen phase)
-     * Note: darkness/blindness already applied earlier to allow fade-in time
+     * Give up on a warp that couldn't be teleported, putting the player back on
+     * the ground instead of leaving them where the zoom ended
      */
-    private void handleFinalMessage(Player player, String warpName) {
-        String titleText = plugin.getConfig().getString("countdown.final-title", "<#7f91fd>ᴡᴀʀᴘɪɴɢ ᴛᴏ");
-        String subtitleText = plugin.getConfig().getString("countdown.final-subtitle", "<white><sc>%warp%</sc>");
-
-        // Get timing from config (0-200 ticks reasonable range)
-        int fadeIn = getValidatedInt("countdown.final-title-timing.fade-in", 10, 0, 200);
-        int stay = getValidatedInt("countdown.final-title-timing.stay", 40, 0, 200);
-        int fadeOut = getValidatedInt("countdown.final-title-timing.fade-out", 10, 0, 200);
-
-        // Send title
-        MessageFormatter.sendTitle(player, titleText, subtitleText, fadeIn, stay, fadeOut,
-                warpName, -1);
+    private void returnToGround(Player player, WarpSession session) {
+        if (needsRestore(session)) {
+            Schedulers.teleport(player, session.originalLocation);
+        }
+        // Lets cleanup run, without counting a warp
+        session.arrived = true;
     }
 
     /**
-     * Play countdown sound
+     * Mark a session's player as arrived, letting its cleanup run
      */
-    private void playCountdownSound(Player player, int secondsLeft) {
-        if (!plugin.getConfig().getBoolean("countdown.sound.enabled", true)) return;
-
-        String soundName = plugin.getConfig().getString("countdown.sound.type", "block.amethyst_block.break");
-        float volume = (float) getValidatedDouble("countdown.sound.volume", 1.0, 0.0, 10.0);
-        float pitch = (float) getValidatedDouble("countdown.sound.pitch-" + secondsLeft, 1.0, 0.0, 2.0);
-
-        playSound(player, soundName, volume, pitch);
+    private void arrive(WarpSession session) {
+        session.arrived = true;
+        stats.eventToArrival.recordSince(session.startNanos);
+        stats.recordWarp();
     }
 
     /**
-     * Play final sound
+     * Remove every effect a session may have applied
      */
-    private void playFinalSound(Player player) {
-        String soundName = plugin.getConfig().getString("countdown.final-sound.type", "block.glass.break");
-        float volume = (float) getValidatedDouble("countdown.final-sound.volume", 1.0, 0.0, 10.0);
-        float pitch = (float) getValidatedDouble("countdown.final-sound.pitch", 0.8, 0.0, 2.0);
-
-        playSound(player, soundName, volume, pitch);
+    private void removeEffects(Player player, PluginSettings settings) {
+        player.removePotionEffect(PotionEffectType.DARKNESS);
+        player.removePotionEffect(PotionEffectType.BLINDNESS);
+        cleanupEffects(player, settings);
     }
 
     /**
-     * Play a sound to a player
+     * Clean up effects after teleport completes
      */
-    private void playSound(Player player, String soundName, float volume, float pitch) {
-        try {
-            // soundName should already be in Minecraft format (e.g., "block.amethyst_block.break")
-            // Use modern Adventure Sound API with self emitter so sound follows the player
-            net.kyori.adventure.sound.Sound sound = net.kyori.adventure.sound.Sound.sound(
-                    net.kyori.adventure.key.Key.key("minecraft", soundName),
-                    net.kyori.adventure.sound.Sound.Source.MASTER,
-                    volume,
-                    pitch
-            );
-
-            // Play sound with SELF emitter so it follows the player (not positional)
-            player.playSound(sound, net.kyori.adventure.sound.Sound.Emitter.self());
-
-            if (plugin.getConfig().getBoolean("debug", false)) {
-                plugin.getLogger().info("Playing sound: " + soundName);
+    private void cleanupEffects(Player player, PluginSettings settings) {
+        if (settings.getZoomPath().getMode() == ZoomPath.Mode.FOV) {
+            // Transient, so it would otherwise last until the player relogs
+            removeFovModifier(player, settings);
+        } else {
+            // Remove invisibility and speed effects
+            player.removePotionEffect(PotionEffectType.INVISIBILITY);
+            player.removePotionEffect(PotionEffectType.SPEED);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        // End the session of a disconnecting player
+        Player player = event.getPlayer();
+        WarpSession session = ticker.get(player.getUniqueId());
+        if (session == null) return;
+
+        // If player disconnects during zoom or before the warp lands, they spawn back at their original
+        // location on rejoin (see RestoreListener). No teleport now: it could load chunks while everyone
+        // disconnects at once
+        if (needsRestore(session)) {
+            restores.record(player.getUniqueId(), session.originalLocation);
+            if (session.settings.isDebug()) {
+                plugin.getLogger().info("Recorded original location of " + player.getName() + " for their rejoin");
             }
-        } catch (Exception e) {
-            plugin.getLogger().warning("Invalid sound: " + soundName + " - " + e.getMessage());
+        }
+
+        cancelCountdown(player, WarpStats.CancelCause.QUIT);
+
+        if (session.settings.isDebug()) {
+            plugin.getLogger().info("Ended warp session for disconnecting player: " + player.getName());
         }
     }
 
     /**
-     * Apply blindness effect
+     * @return true if the session's player is off the ground (riding the camera or
+     *         waiting for the warp) and must be put back where the zoom started
      */
-    private void applyBlindness(Player player) {
-        int duration = getValidatedInt("countdown.blindness.duration", 3, 1, 60);
-        int amplifier = getValidatedInt("countdown.blindness.amplifier", 0, 0, 10);
-
-        player.addPotionEffect(new PotionEffect(
-                PotionEffectType.BLINDNESS,
-                duration * 20,
-                amplifier,
-                false,
-                false
-        ));
+    private static boolean needsRestore(WarpSession session) {
+        // An FOV zoom only lifts the player by a jump, and the warp has already landed once arrived
+        return session.originalLocation != null && !session.arrived
+                && session.settings.getZoomPath().getMode() != ZoomPath.Mode.FOV;
     }
 
     /**
-     * Apply darkness effect for smoother black screen transition
+     * Handle countdown message (3, 2, 1)
      */
-    private void applyDarkness(Player player) {
-        int duration = getValidatedInt("countdown.darkness.duration", 3, 1, 60);
-        int amplifier = getValidatedInt("countdown.darkness.amplifier", 0, 0, 10);
+    private void handleCountdownMessage(Player player, WarpSession session, int secondsLeft) {
+        // Queue title; players warping to the same place share one render and send
+        PluginSettings settings = session.settings;
+        titles.send(player, session, settings.getCountdownTitle(), settings.getCountdownSubtitle(),
+                settings.getTitleTimes(), session.warpName, secondsLeft);
 
-        player.addPotionEffect(new PotionEffect(
-                PotionEffectType.DARKNESS,
-                duration * 20,
-                amplifier,
-                false,
-                false
-        ));
+        // Play sound
+        if (session.tier.hasEffects()) {
+            playSound(player, settings, settings.getCountdownSound(secondsLeft));
+        }
     }
 
     /**
-     * Play arrival sound at destination
+     * Handle final message (black screen phase)
+     * Note: darkness/blindness already applied earlier to allow fade-in time
      */
-    private void playArrivalSound(Player player) {
-        String soundName = plugin.getConfig().getString("countdown.arrival-sound.type", "entity.enderman.teleport");
-        float volume = (float) getValidatedDouble("countdown.arrival-sound.volume", 1.0, 0.0, 10.0);
-        float pitch = (float) getValidatedDouble("countdown.arrival-sound.pitch", 1.0, 0.0, 2.0);
-
-        playSound(player, soundName, volume, pitch);
+    private void handleFinalMessage(Player player, WarpSession session) {
+        PluginSettings settings = session.settings;
+        titles.send(player, session, settings.getFinalTitle(), settings.getFinalSubtitle(),
+                settings.getFinalTitleTimes(), session.warpName, -1);
     }
 
     /**
-     * Validate an integer config value
-     *
-     * @param path         Config path
-     * @param defaultValue Default value to use
-     * @param min          Minimum allowed value
-     * @param max          Maximum allowed value
-     * @return Validated value
+     * Send the titles queued while the ticker advanced every session
      */
-    private int getValidatedInt(String path, int defaultValue, int min, int max) {
-        int value = plugin.getConfig().getInt(path, defaultValue);
-        if (value < min || value > max) {
-            plugin.getLogger().warning("Invalid config value for '" + path + "': " + value +
-                    ". Must be between " + min + " and " + max + ". Using default: " + defaultValue);
-            return defaultValue;
-        }
-        return value;
+    private void flushTitles() {
+        titles.flush(ticker);
     }
 
     /**
-     * Validate a double config value
+     * Play a sound to a player
      *
-     * @param path         Config path
-     * @param defaultValue Default value to use
-     * @param min          Minimum allowed value
-     * @param max          Maximum allowed value
-     * @return Validated value
+     * @param sound The pre-built sound, or null if it is disabled
      */
-    private double getValidatedDouble(String path, double defaultValue, double min, double max) {
-        double value = plugin.getConfig().getDouble(path, defaultValue);
-        if (value < min || value > max) {
-            plugin.getLogger().warning("Invalid config value for '" + path + "': " + value +
-                    ". Must be between " + min + " and " + max + ". Using default: " + defaultValue);
-            return defaultValue;
+    private void playSound(Player player, PluginSettings settings, Sound sound) {
+        if (sound == null) return;
+
+        // Play sound with SELF emitter so it follows the player (not positional)
+        player.playSound(sound, Sound.Emitter.self());
+
+        if (settings.isDebug()) {
+            plugin.getLogger().info("Playing sound: " + sound.name().asString());
         }
-        return value;
     }
 
     /**
-     * Cancel countdown for a player
+     * End a player's warp session, undoing its effects
+     *
+     * @param cause Why the session is ending, for stats
      */
-    private void cancelCountdown(Player player) {
-        UUID uuid = player.getUniqueId();
-        waitingPlayers.remove(uuid);
-        transitioningPlayers.remove(uuid);
-        postCountdownPlayers.remove(uuid);
-        playerOriginalLocations.remove(uuid);
+    void cancelCountdown(Player player, WarpStats.CancelCause cause) {
+        WarpSession session = ticker.stop(player.getUniqueId());
+        if (session == null) return;
 
-        // Clean up bat if exists
-        Bat bat = playerBats.remove(uuid);
-        if (bat != null && bat.isValid()) {
-            bat.removePassenger(player);
-            bat.remove();
+        if (session.isCancellable()) {
+            stats.recordCancellation(cause);
         }
+        budget.remove(session);
 
-        // Remove all effects if they were applied
-        player.removePotionEffect(PotionEffectType.DARKNESS);
-        player.removePotionEffect(PotionEffectType.BLINDNESS);
-        player.removePotionEffect(PotionEffectType.INVISIBILITY);
-        player.removePotionEffect(PotionEffectType.SPEED);
-
-        List<BukkitTask> tasks = playerCountdownTasks.remove(uuid);
-        if (tasks != null && !tasks.isEmpty()) {
-            int cancelledCount = 0;
-            for (BukkitTask task : tasks) {
-                if (!task.isCancelled()) {
-                    task.cancel();
-                    cancelledCount++;
-                }
-            }
+        preloader.release(session);
 
-            // Show cancellation message
-            String titleText = plugin.getConfig().getString("countdown.cancelled-title", "<red>TELEPORT CANCELLED");
-            String subtitleText = plugin.getConfig().getString("countdown.cancelled-subtitle", "<gray>You moved");
+        // Return the camera to the pool if the zoom had started
+        Entity camera = session.camera;
+        session.camera = null;
+        if (camera != null) {
+            cameraPool.release(camera, player);
+        }
 
-            // Get timing from config (reuse title timing, 0-200 ticks reasonable range)
-            int fadeIn = getValidatedInt("countdown.title-timing.fade-in", 10, 0, 200);
-            int stay = getValidatedInt("countdown.title-timing.stay", 40, 0, 200);
-            int fadeOut = getValidatedInt("countdown.title-timing.fade-out", 10, 0, 200);
+        removeEffects(player, session.settings);
 
-            // Send cancellation title
-            MessageFormatter.sendTitle(player, titleText, subtitleText, fadeIn, stay, fadeOut, "", -1);
+        if (session.isCancellable()) {
+            // Show cancellation message (reuses countdown title timing)
+            PluginSettings settings = plugin.getSettings();
+            MessageFormatter.sendTitle(player, settings.getCancelledTitle(), settings.getCancelledSubtitle(),
+                    settings.getTitleTimes(), "", -1);
 
-            if (plugin.getConfig().getBoolean("debug", false)) {
-                plugin.getLogger().info("Cancelled " + cancelledCount + " countdown task(s) for " + player.getName());
+            if (settings.isDebug()) {
+                plugin.getLogger().info("Cancelled countdown for " + player.getName());
             }
         }
     }
 
     /**
-     * Clean up orphaned bats (called periodically)
-     * Removes bats that are invalid or have no passengers
+     * End all warp sessions
      */
-    public void cleanupOrphanedBats() {
-        // Count and remove orphaned bats
-        int[] removed = {0};
-        playerBats.entrySet().removeIf(entry -> {
-            Bat bat = entry.getValue();
-            if (bat == null || !bat.isValid() || bat.getPassengers().isEmpty()) {
-                // Remove invalid or riderless bat
-                if (bat != null && bat.isValid()) {
-                    bat.remove();
+    public void cleanup() {
+        boolean stopping = Bukkit.isStopping();
+        List<WarpSession> sessions = new ArrayList<>(ticker.getSessions());
+
+        // Release any held destination chunks, then remove every camera
+        for (WarpSession session : sessions) {
+            preloader.release(session);
+            // Players caught mid-zoom by a shutdown are saved in mid-air; spawn them back on the ground
+            if (stopping && needsRestore(session)) {
+                restores.record(session.playerId, session.originalLocation);
+            }
+        }
+        cameraPool.shutdown();
+
+        for (WarpSession session : sessions) {
+            Player player = Bukkit.getPlayer(session.playerId);
+            if (player == null) continue;
+
+            if (!Bukkit.isOwnedByCurrentRegion(player)) {
+                // Folia: the player belongs to another region, and a disabled plugin can't schedule
+                // work there. Their effects run out by themselves (the FOV modifier on relog), and
+                // the journal puts them back on the ground when they next spawn
+                if (!stopping && needsRestore(session)) {
+                    restores.record(session.playerId, session.originalLocation);
                 }
-                removed[0]++;
-                return true; // Remove from map
+                continue;
             }
-            return false; // Keep in map
-        });
 
-        if (removed[0] > 0 && plugin.getConfig().getBoolean("debug", false)) {
-            plugin.getLogger().info("Cleaned up " + removed[0] + " orphaned bat(s)");
+            removeEffects(player, session.settings);
+            // On a reload or unload players stay online: put them back on the ground now,
+            // rather than on a join that may be days away
+            if (!stopping && needsRestore(session)) {
+                Schedulers.teleport(player, session.originalLocation);
+            }
         }
-    }
 
-    /**
-     * Clean up all countdown tasks
-     */
-    public void cleanup() {
-        playerCountdownTasks.values().forEach(tasks ->
-                tasks.forEach(task -> {
-                    if (!task.isCancelled()) {
-                        task.cancel();
-                    }
-                })
-        );
-
-        playerCountdownTasks.clear();
-        waitingPlayers.clear();
-        transitioningPlayers.clear();
-        postCountdownPlayers.clear();
-        playerOriginalLocations.clear();
-        pendingRestoreLocations.clear();
-
-        // Clean up any remaining bats
-        playerBats.values().forEach(bat -> {
-            if (bat.isValid()) {
-                bat.eject();
-                bat.remove();
-            }
-        });
-        playerBats.clear();
+        ticker.shutdown();
+        titles.clear();
+        // Write out any restores still buffered; the async scheduler won't run them now
+        restores.flush();
     }
 }
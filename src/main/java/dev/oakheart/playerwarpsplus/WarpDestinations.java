@@ -0,0 +1,51 @@
+package dev.oakheart.playerwarpsplus;
+
+import com.olziedev.playerwarps.api.events.warp.PlayerWarpTeleportEvent;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Looks up warp destinations once per warp per tick.
+ *
+ * <p>During a warp rush many players start warping to the same warp in the
+ * same tick, and each of their events would resolve the warp's location
+ * through PlayerWarps again. The first lookup of a warp in a tick is handed to
+ * every other session warping there in that tick. Lookups are forgotten when
+ * the tick changes, so a warp moved in between is seen on the next tick.
+ *
+ * <p>Sessions share the returned {@link Location}, so it is never modified.
+ * Synchronized, since on Folia warp events fire on different region threads.
+ */
+final class WarpDestinations {
+
+    private final Map<String, Location> resolved = new HashMap<>(); // This tick's lookups by warp name
+    private int tick = Integer.MIN_VALUE;
+
+    /**
+     * Get the destination of an event's warp
+     *
+     * @param event    The warp teleport event, whose warp is not null
+     * @param warpName The warp's name, or null if it has none (then it is looked up every time)
+     * @return The warp location, or null if the warp has none
+     */
+    synchronized Location resolve(PlayerWarpTeleportEvent event, String warpName) {
+        int now = Bukkit.getCurrentTick();
+        if (now != tick) {
+            tick = now;
+            resolved.clear();
+        }
+
+        Location destination = warpName != null ? resolved.get(warpName) : null;
+        if (destination == null) {
+            destination = event.getPlayerWarp().getWarpLocation() != null
+                    ? event.getPlayerWarp().getWarpLocation().getLocation() : null;
+            if (destination != null && warpName != null) {
+                resolved.put(warpName, destination);
+            }
+        }
+        return destination;
+    }
+}
@@ -0,0 +1,159 @@
+package dev.oakheart.playerwarpsplus;
+
+import com.olziedev.playerwarps.api.events.warp.PlayerWarpTeleportEvent;
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.util.Vector;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * State of a single player's warp, from the first countdown title until the
+ * post-teleport cleanup has run.
+ *
+ * <p>A session moves through its {@link Phase}s in order and is stored in a
+ * single map (see {@link CountdownTicker}), so event handlers need one lookup to
+ * decide what to do with a player. Sessions only hold the player's UUID; the
+ * player is looked up whenever a step runs, so a session never keeps a player
+ * who has quit reachable.
+ *
+ * <p>Everything but the phase and preload state is only touched from the
+ * thread that owns the player (the main thread on Paper, the player's region
+ * thread on Folia).
+ *
+ * <p>Step timings are tick offsets from the start of the countdown, computed
+ * once from the settings snapshot the session was started with. The teleport
+ * may move within {@code [earliestTeleportTick, teleportTick + max-wait]}
+ * depending on when the destination finished loading, and is held further
+ * while it waits for its turn in the {@link TickBudget}. A zoom waiting for
+ * its turn starts late and is cut short instead. With an asynchronous warp
+ * teleport, the post-teleport cleanup waits until the player has arrived.
+ */
+public final class WarpSession {
+
+    /**
+     * The phases of a warp, in order
+     */
+    public enum Phase {
+        /** Counting down; moving, taking damage or an external teleport cancels the warp */
+        COUNTDOWN,
+        /** Riding the camera entity; movement and damage are blocked */
+        TRANSITION,
+        /** Dismounted and being sent to the destination; our own warp event is let through */
+        TELEPORTING,
+        /** Arrived; only effect cleanup and the arrival sound remain */
+        POST
+    }
+
+    private static final int INVISIBILITY_APPLICATION_OFFSET_TICKS = 3; // Apply invisibility 3 ticks before bat mount
+    private static final int PRE_TELEPORT_DELAY_TICKS = 2; // Minimal delay to ensure bat entity is removed before teleport
+    private static final int WARP_EVENT_EXPIRY_TICKS = 6; // How long our own warp event is let through, counted from the teleport
+    private static final int ARRIVAL_SOUND_DELAY_TICKS = 8; // Delay after effect cleanup before the arrival sound
+
+    final UUID playerId;
+    final String playerName;
+    final String warpName;
+    final Location destination;
+    final PlayerWarpTeleportEvent originalEvent;
+    final PluginSettings settings;
+    final QualityGovernor.Tier tier; // Effect quality, fixed when the session starts
+    final long startNanos = System.nanoTime(); // When the warp event was intercepted, for stats
+
+    // Timeline, in ticks since the countdown started
+    final int darknessTick;
+    final int invisibilityTick;
+    final int zoomTick;
+    final int finalMessageTick;
+    final int earliestTeleportTick;
+    final int teleportTick;
+    final int warpTick;
+    final int cleanupTick;
+    final int warpEventExpiryTick;
+    final int endTick;
+
+    volatile Phase phase = Phase.COUNTDOWN;
+    int tick;
+    ScheduledTask task; // Folia only: the per-player task advancing this session
+
+    // Destination preloading (see DestinationPreloader); chunks complete on their own region
+    volatile boolean destinationReady;
+    boolean preloadReleased; // Guarded by this session's lock
+    List<DestinationPreloader.ChunkRef> preloadedChunks; // Guarded by this session's lock
+    int heldTicks; // Ticks held at the teleport tick waiting for the destination
+
+    // Tick budget (see TickBudget)
+    TickBudget.Operation budgetWait; // Queue the session is waiting in, guarded by the budget
+    int budgetHeldTicks; // Ticks held at the teleport tick waiting for a teleport permit
+    int zoomStartTick = -1; // Tick the zoom actually started, later than zoomTick if it had to wait
+
+    // Transition state
+    Entity camera;
+    Location originalLocation; // Where the zoom started; where /back returns to and quitting restores to
+    Location zoomOrigin;
+    Location zoomTarget; // Reused for every camera move
+    Vector zoomDirection;
+
+    // Warp teleport; an asynchronous one completes on whichever thread then owns the player
+    volatile boolean arrived;
+    int arrivalWaitTicks;
+
+    WarpSession(UUID playerId, String playerName, String warpName, Location destination,
+                PlayerWarpTeleportEvent originalEvent, PluginSettings settings, QualityGovernor.Tier tier) {
+        this.playerId = playerId;
+        this.playerName = playerName;
+        this.warpName = warpName;
+        this.destination = destination;
+        this.originalEvent = originalEvent;
+        this.settings = settings;
+        this.tier = tier;
+
+        // Reduced tiers drop the zoom, and title-only also the black screen
+        int zoomDuration = tier.hasZoom() ? settings.getZoomDuration() : 0;
+        int blackDuration = tier.hasEffects() ? settings.getBlackDuration() : 0;
+
+        int duration = settings.getDuration();
+        this.darknessTick = (duration - 1) * 20;
+        this.invisibilityTick = duration * 20 - INVISIBILITY_APPLICATION_OFFSET_TICKS;
+        this.zoomTick = duration * 20;
+        this.finalMessageTick = zoomTick + zoomDuration;
+        this.teleportTick = finalMessageTick + blackDuration;
+        // With preloading the black screen may be cut short once the destination is ready
+        this.earliestTeleportTick = settings.isPreloadEnabled()
+                ? finalMessageTick + Math.min(settings.getMinBlackDuration(), blackDuration)
+                : teleportTick;
+        this.destinationReady = !settings.isPreloadEnabled();
+        this.warpTick = teleportTick + 1;
+        this.cleanupTick = teleportTick + PRE_TELEPORT_DELAY_TICKS;
+        this.warpEventExpiryTick = teleportTick + WARP_EVENT_EXPIRY_TICKS;
+        this.endTick = cleanupTick + ARRIVAL_SOUND_DELAY_TICKS;
+    }
+
+    /**
+     * @return Seconds left in the countdown at the current tick
+     */
+    int secondsLeft() {
+        return settings.getDuration() - tick / 20;
+    }
+
+    /**
+     * @return true while the warp can still be cancelled (countdown or zoom)
+     */
+    boolean isCancellable() {
+        Phase current = phase;
+        return current == Phase.COUNTDOWN || current == Phase.TRANSITION;
+    }
+
+    public UUID getPlayerId() {
+        return playerId;
+    }
+
+    public String getWarpName() {
+        return warpName;
+    }
+
+    public Phase getPhase() {
+        return phase;
+    }
+}
@@ -0,0 +1,176 @@
+package dev.oakheart.playerwarpsplus;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runtime counters and latency histograms shown by {@code /pwp stats}.
+ *
+ * <p>Recording is cheap enough to leave on permanently: counters are
+ * {@link LongAdder}s and histograms have a fixed set of buckets, so recording
+ * never locks or allocates. Everything counts from plugin enable; reloading the
+ * config does not reset it.
+ */
+final class WarpStats {
+
+    /**
+     * Why a countdown ended before the player was warped
+     */
+    enum CancelCause {
+        MOVE,
+        DAMAGE,
+        TELEPORT,
+        QUIT,
+        /** A new warp replaced the session, or a step failed */
+        OTHER
+    }
+
+    /**
+     * Latency histogram with fixed, roughly logarithmic buckets from 1 µs to 10 s.
+     * Percentiles are reported as the upper bound of the bucket they fall in.
+     */
+    static final class Histogram {
+        // Upper bounds in microseconds; one extra bucket holds everything slower
+        private static final long[] BOUNDS_MICROS = {
+                1, 2, 5, 10, 20, 50, 100, 200, 500,
+                1_000, 2_000, 5_000, 10_000, 20_000, 50_000, 100_000, 200_000, 500_000,
+                1_000_000, 2_000_000, 5_000_000, 10_000_000
+        };
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BOUNDS_MICROS.length + 1);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+        void record(long nanos) {
+            long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+            int bucket = 0;
+            while (bucket < BOUNDS_MICROS.length && micros > BOUNDS_MICROS[bucket]) {
+                bucket++;
+            }
+            buckets.incrementAndGet(bucket);
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        /**
+         * Record the time elapsed since {@code startNanos}
+         */
+        void recordSince(long startNanos) {
+            record(System.nanoTime() - startNanos);
+        }
+
+        long getCount() {
+            return count.sum();
+        }
+
+        long getAverageNanos() {
+            long n = count.sum();
+            return n == 0 ? 0 : totalNanos.sum() / n;
+        }
+
+        long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        /**
+         * @param percentile Between 0 and 100
+         * @return Upper bound of the bucket holding the percentile, or the maximum if it is in the overflow bucket
+         */
+        long getPercentileNanos(double percentile) {
+            long n = 0;
+            long[] snapshot = new long[buckets.length()];
+            for (int i = 0; i < snapshot.length; i++) {
+                snapshot[i] = buckets.get(i);
+                n += snapshot[i];
+            }
+            if (n == 0) return 0;
+
+            long rank = (long) Math.ceil(n * percentile / 100.0);
+            long seen = 0;
+            for (int i = 0; i < BOUNDS_MICROS.length; i++) {
+                seen += snapshot[i];
+                if (seen >= rank) {
+                    return TimeUnit.MICROSECONDS.toNanos(BOUNDS_MICROS[i]);
+                }
+            }
+            return getMaxNanos();
+        }
+    }
+
+    private static final int RATE_WINDOW_SECONDS = 60;
+
+    final Histogram eventHandler = new Histogram(); // Time in the PlayerWarps event handler
+    final Histogram sessionStep = new Histogram(); // Time in one tick of a session
+    final Histogram cameraLease = new Histogram(); // Leasing (spawning or reusing) a camera
+    final Histogram teleportLocation = new Histogram(); // PlayerWarps teleportLocation call
+    final Histogram eventToArrival = new Histogram(); // From the warp event to the final teleport
+
+    private final LongAdder warps = new LongAdder();
+    private final LongAdder commandFallbacks = new LongAdder();
+    private final Map<CancelCause, LongAdder> cancellations = new EnumMap<>(CancelCause.class);
+
+    // One slot per second of the last minute; a slot is reset when its second comes round again
+    private final AtomicLongArray rateSlotSecond = new AtomicLongArray(RATE_WINDOW_SECONDS);
+    private final AtomicLongArray rateSlotCount = new AtomicLongArray(RATE_WINDOW_SECONDS);
+
+    WarpStats() {
+        for (CancelCause cause : CancelCause.values()) {
+            cancellations.put(cause, new LongAdder());
+        }
+    }
+
+    /**
+     * Record a completed warp
+     */
+    void recordWarp() {
+        warps.increment();
+
+        long second = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+        int slot = (int) (second % RATE_WINDOW_SECONDS);
+        long slotSecond = rateSlotSecond.get(slot);
+        if (slotSecond != second && rateSlotSecond.compareAndSet(slot, slotSecond, second)) {
+            rateSlotCount.set(slot, 0);
+        }
+        rateSlotCount.incrementAndGet(slot);
+    }
+
+    void recordCancellation(CancelCause cause) {
+        cancellations.get(cause).increment();
+    }
+
+    void recordCommandFallback() {
+        commandFallbacks.increment();
+    }
+
+    long getWarpCount() {
+        return warps.sum();
+    }
+
+    /**
+     * @return Warps completed in the last 60 seconds
+     */
+    long getWarpsLastMinute() {
+        long now = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+        long total = 0;
+        for (int slot = 0; slot < RATE_WINDOW_SECONDS; slot++) {
+            if (now - rateSlotSecond.get(slot) < RATE_WINDOW_SECONDS) {
+                total += rateSlotCount.get(slot);
+            }
+        }
+        return total;
+    }
+
+    long getCancellations(CancelCause cause) {
+        return cancellations.get(cause).sum();
+    }
+
+    long getCommandFallbackCount() {
+        return commandFallbacks.sum();
+    }
+}
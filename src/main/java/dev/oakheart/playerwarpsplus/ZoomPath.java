@@ -0,0 +1,159 @@
+package dev.oakheart.playerwarpsplus;
+
+import java.util.Locale;
+
+/**
+ * Precomputed motion of the camera during the zoom.
+ *
+ * <p>The path is compiled once per config load. It holds the camera's distance
+ * from its starting point after each tick of the zoom, shaped by an
+ * {@link Easing}, so moving the camera is a single table lookup.
+ *
+ * <p>Two backends use the table:
+ * <ul>
+ *   <li>{@link Mode#BAT} - the server moves the camera every tick of the zoom.
+ *       With {@link Easing#ACCELERATE} it carries on along the same curve
+ *       through the black screen, as the original bat did; other easings stop
+ *       at the end of the zoom.</li>
+ *   <li>{@link Mode#DISPLAY} - the camera is a display entity that is moved a
+ *       few times (once by default) with a teleport duration, and the client
+ *       interpolates the motion in between. Each keyframe is a point from the
+ *       table, so more keyframes follow the easing curve more closely.</li>
+ * </ul>
+ * The third mode, {@link Mode#FOV}, uses no camera and no path: it only widens
+ * the player's FOV and lifts them slightly.
+ */
+public final class ZoomPath {
+
+    private static final double INITIAL_SPEED = 0.3; // Distance covered in the first tick of the zoom
+    private static final double ACCELERATION = 0.1; // Speed increase per tick
+    private static final int MAX_TELEPORT_DURATION = 59; // Longest interpolation the client accepts
+
+    /**
+     * How the camera is moved
+     */
+    public enum Mode {
+        BAT,
+        DISPLAY,
+        /** No camera entity - FOV widening through an attribute modifier only */
+        FOV
+    }
+
+    /**
+     * Shape of the camera's motion over the zoom
+     */
+    public enum Easing {
+        /** Constant acceleration - the original bat motion; a bat keeps accelerating until the teleport */
+        ACCELERATE,
+        LINEAR,
+        EASE_IN,
+        EASE_OUT,
+        EASE_IN_OUT;
+
+        /**
+         * @param step  Ticks into the zoom
+         * @param steps Length of the zoom in ticks
+         * @return Fraction of the total distance covered after {@code step} ticks
+         */
+        double fraction(int step, int steps) {
+            double t = (double) step / steps;
+            return switch (this) {
+                case ACCELERATE -> accelerateDistance(step) / accelerateDistance(steps);
+                case LINEAR -> t;
+                case EASE_IN -> t * t * t;
+                case EASE_OUT -> 1 - Math.pow(1 - t, 3);
+                case EASE_IN_OUT -> t < 0.5 ? 4 * t * t * t : 1 - Math.pow(-2 * t + 2, 3) / 2;
+            };
+        }
+
+        /**
+         * Parse an easing name as written in the config (e.g. "ease-in-out")
+         *
+         * @return The easing, or null if the name is unknown
+         */
+        static Easing parse(String name) {
+            try {
+                return valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+
+    private final Mode mode;
+    private final boolean continuesAfterZoom;
+    private final double[] offsets; // Distance from the start after each tick, offsets[0] = 0
+    private final int[] keyframeTargets; // DISPLAY: tick the move starting on this tick ends on, 0 if none
+
+    private ZoomPath(Mode mode, boolean continuesAfterZoom, double[] offsets, int[] keyframeTargets) {
+        this.mode = mode;
+        this.continuesAfterZoom = continuesAfterZoom;
+        this.offsets = offsets;
+        this.keyframeTargets = keyframeTargets;
+    }
+
+    /**
+     * Compile a zoom path. The total distance is always that of the original
+     * accelerating bat, so only the shape of the motion changes with the easing.
+     *
+     * @param mode      Camera backend
+     * @param easing    Shape of the motion
+     * @param steps     Length of the zoom in ticks
+     * @param keyframes Number of interpolated moves in {@link Mode#DISPLAY}
+     * @return The compiled path
+     */
+    static ZoomPath compile(Mode mode, Easing easing, int steps, int keyframes) {
+        double distance = accelerateDistance(steps);
+        double[] offsets = new double[steps + 1];
+        for (int step = 1; step <= steps; step++) {
+            offsets[step] = distance * easing.fraction(step, steps);
+        }
+
+        // Split the zoom into evenly sized moves, each short enough for the client to interpolate
+        int[] keyframeTargets = new int[steps + 1];
+        int moves = Math.max(Math.min(keyframes, steps), (steps + MAX_TELEPORT_DURATION - 1) / MAX_TELEPORT_DURATION);
+        for (int i = 0; i < moves; i++) {
+            int start = i * steps / moves;
+            keyframeTargets[start] = (i + 1) * steps / moves;
+        }
+        return new ZoomPath(mode, mode == Mode.BAT && easing == Easing.ACCELERATE, offsets, keyframeTargets);
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * @return true if the camera keeps moving after the zoom, until the teleport
+     */
+    public boolean continuesAfterZoom() {
+        return continuesAfterZoom;
+    }
+
+    /**
+     * @param step Ticks into the zoom
+     * @return Distance of the camera from its starting point; once the zoom is over,
+     *         either further along the accelerating curve or held at the end
+     */
+    public double getOffset(int step) {
+        if (step < offsets.length) {
+            return offsets[step];
+        }
+        return continuesAfterZoom ? accelerateDistance(step) : offsets[offsets.length - 1];
+    }
+
+    /**
+     * Get the move that starts on a tick in {@link Mode#DISPLAY}
+     *
+     * @param step Ticks into the zoom
+     * @return The tick the move should arrive at, or 0 if no move starts on this tick
+     */
+    public int getKeyframeTarget(int step) {
+        return step < keyframeTargets.length ? keyframeTargets[step] : 0;
+    }
+
+    private static double accelerateDistance(int step) {
+        // Sum of (INITIAL_SPEED + ACCELERATION * i) for i = 1..step
+        return INITIAL_SPEED * step + ACCELERATION * step * (step + 1) / 2.0;
+    }
+}
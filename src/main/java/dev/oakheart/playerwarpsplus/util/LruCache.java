@@ -0,0 +1,109 @@
+package dev.oakheart.playerwarpsplus.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A small size-bounded cache that evicts the least recently used entry.
+ *
+ * <p>Hits, misses and evictions are counted so the capacity can be tuned from
+ * real traffic. A capacity of 0 disables caching; every lookup is then a miss.
+ *
+ * <p>All operations are thread-safe.
+ *
+ * @param <K> Key type
+ * @param <V> Value type
+ */
+public final class LruCache<K, V> {
+
+    /**
+     * Point-in-time counters for a cache
+     *
+     * @param hits      Lookups served from the cache
+     * @param misses    Lookups that had to compute the value
+     * @param evictions Entries dropped to stay within capacity
+     * @param size      Current number of entries
+     * @param capacity  Maximum number of entries
+     */
+    public record Stats(long hits, long misses, long evictions, int size, int capacity) {
+
+        /**
+         * @return Fraction of lookups served from the cache (0 when there were none)
+         */
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+
+    private final LinkedHashMap<K, V> entries;
+    private int capacity;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public LruCache(int capacity) {
+        this.capacity = Math.max(0, capacity);
+        // Access-ordered so the eldest entry is always the least recently used
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                if (size() > LruCache.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Get a cached value, computing and storing it on a miss
+     *
+     * @param key    The cache key
+     * @param loader Computes the value when it is not cached
+     * @return The cached or newly computed value
+     */
+    public synchronized V get(K key, Function<? super K, ? extends V> loader) {
+        V value = entries.get(key);
+        if (value != null) {
+            hits++;
+            return value;
+        }
+
+        misses++;
+        value = loader.apply(key);
+        if (capacity > 0 && value != null) {
+            entries.put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * @return A copy of the current entries, least recently used first
+     */
+    public synchronized Map<K, V> snapshot() {
+        return new LinkedHashMap<>(entries);
+    }
+
+    /**
+     * Drop all entries, reset the counters and apply a new capacity
+     *
+     * @param newCapacity Maximum number of entries (0 to disable)
+     */
+    public synchronized void reset(int newCapacity) {
+        entries.clear();
+        capacity = Math.max(0, newCapacity);
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+
+    /**
+     * @return A snapshot of the cache counters
+     */
+    public synchronized Stats stats() {
+        return new Stats(hits, misses, evictions, entries.size(), capacity);
+    }
+}
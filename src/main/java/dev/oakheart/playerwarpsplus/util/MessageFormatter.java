@@ -1,13 +1,14 @@
 package dev.oakheart.playerwarpsplus.util;
 
+import net.kyori.adventure.audience.Audience;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
+import net.kyori.adventure.text.minimessage.tag.standard.StandardTags;
 import net.kyori.adventure.title.Title;
 import org.bukkit.entity.Player;
 
 import java.time.Duration;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Handles message formatting with MiniMessage and custom placeholders.
@@ -16,7 +17,7 @@ import java.util.regex.Pattern;
  * <ul>
  *   <li>Format messages using MiniMessage syntax</li>
  *   <li>Replace custom placeholders (%warp%, %seconds%, etc.)</li>
- *   <li>Process custom &lt;smallcaps&gt; and &lt;sc&gt; tags for Unicode small caps conversion</li>
+ *   <li>Resolve custom text transform tags (small caps, superscript, fullwidth)</li>
  *   <li>Send formatted titles and subtitles to players</li>
  * </ul>
  *
@@ -26,18 +27,36 @@ import java.util.regex.Pattern;
  *   <li>%seconds% - Seconds remaining in countdown (countdown messages only)</li>
  * </ul>
  *
- * <p>Custom tags:
+ * <p>Custom tags (see {@link TextTransform}):
  * <ul>
  *   <li>&lt;smallcaps&gt;text&lt;/smallcaps&gt; - Converts text to Unicode small caps</li>
  *   <li>&lt;sc&gt;text&lt;/sc&gt; - Short alias for smallcaps</li>
+ *   <li>&lt;superscript&gt;/&lt;sup&gt; - Converts text to Unicode superscript</li>
+ *   <li>&lt;fullwidth&gt;/&lt;fw&gt; - Converts text to fullwidth forms</li>
  * </ul>
  *
+ * <p>Messages from config are normally compiled into a {@link TitleTemplate}
+ * once and rendered from there; {@link #format} parses from scratch. Rendered
+ * per-warp final messages are kept in a small LRU cache, since most traffic goes
+ * to a handful of popular warps.
+ *
  * <p>All methods are static and the class should not be instantiated.
  */
 public class MessageFormatter {
 
-    private static final Pattern SMALLCAPS_PATTERN = Pattern.compile("<(smallcaps|sc)>(.*?)</\\1>");
-    private static final MiniMessage MINI_MESSAGE = MiniMessage.miniMessage();
+    private static final MiniMessage MINI_MESSAGE = MiniMessage.builder()
+            .tags(TagResolver.resolver(StandardTags.defaults(), TextTransform.resolver()))
+            .build();
+    private static final int DEFAULT_CACHE_SIZE = 64;
+
+    /**
+     * Key for a rendered per-warp message
+     */
+    private record RenderKey(TitleTemplate template, String warpName) {}
+
+    // Finished final-title components per (template, warp). Templates are rebuilt on reload,
+    // so the cache is cleared whenever the configuration changes
+    private static final LruCache<RenderKey, Component> RENDER_CACHE = new LruCache<>(DEFAULT_CACHE_SIZE);
 
     private MessageFormatter() {}
 
@@ -71,67 +90,29 @@ public class MessageFormatter {
             processed = processed.replace("%seconds%", String.valueOf(secondsLeft));
         }
 
-        // Process smallcaps tags before MiniMessage parsing
-        processed = processSmallCapsTags(processed);
-
-        // Parse with MiniMessage
-        return MINI_MESSAGE.deserialize(processed);
+        return parse(processed);
     }
 
     /**
-     * Process <smallcaps>text</smallcaps> and <sc>text</sc> tags.
-     * Converts only the text portions to small caps while preserving any
-     * nested MiniMessage tags (e.g. {@code <sc><bold>text</bold></sc>} works).
+     * Parse a message whose placeholders have already been substituted
+     *
+     * @param message The message with placeholders replaced
+     * @return Parsed Component
      */
-    private static String processSmallCapsTags(String message) {
-        Matcher matcher = SMALLCAPS_PATTERN.matcher(message);
-        StringBuilder result = new StringBuilder();
-
-        while (matcher.find()) {
-            String innerContent = matcher.group(2);
-            String converted = convertTextPreservingTags(innerContent);
-            matcher.appendReplacement(result, Matcher.quoteReplacement(converted));
-        }
-
-        matcher.appendTail(result);
-        return result.toString();
+    static Component parse(String message) {
+        // Text transform tags (<sc> etc.) are resolved during this single pass
+        return MINI_MESSAGE.deserialize(message);
     }
 
     /**
-     * Converts text to small caps while preserving MiniMessage tags.
-     * Characters inside angle brackets are left untouched.
+     * Parse a message with extra tags on top of the standard and transform tags
+     *
+     * @param message  The message to parse
+     * @param resolver The extra tags
+     * @return Parsed Component
      */
-    private static String convertTextPreservingTags(String content) {
-        StringBuilder result = new StringBuilder();
-        StringBuilder textBuffer = new StringBuilder();
-        boolean inTag = false;
-
-        for (int i = 0; i < content.length(); i++) {
-            char c = content.charAt(i);
-            if (c == '<') {
-                // Flush accumulated text as small caps
-                if (textBuffer.length() > 0) {
-                    result.append(SmallCapsConverter.convert(textBuffer.toString()));
-                    textBuffer.setLength(0);
-                }
-                inTag = true;
-                result.append(c);
-            } else if (c == '>' && inTag) {
-                inTag = false;
-                result.append(c);
-            } else if (inTag) {
-                result.append(c);
-            } else {
-                textBuffer.append(c);
-            }
-        }
-
-        // Flush any remaining text
-        if (textBuffer.length() > 0) {
-            result.append(SmallCapsConverter.convert(textBuffer.toString()));
-        }
-
-        return result.toString();
+    static Component parse(String message, TagResolver resolver) {
+        return MINI_MESSAGE.deserialize(message, resolver);
     }
 
     /**
@@ -149,15 +130,83 @@ public class MessageFormatter {
     public static void sendTitle(Player player, String titleText, String subtitleText,
                                   int fadeIn, int stay, int fadeOut,
                                   String warpName, int secondsLeft) {
-        Component title = format(titleText, warpName, secondsLeft);
-        Component subtitle = format(subtitleText, warpName, secondsLeft);
-
         Title.Times times = Title.Times.times(
                 Duration.ofMillis(fadeIn * 50L),
                 Duration.ofMillis(stay * 50L),
                 Duration.ofMillis(fadeOut * 50L)
         );
 
+        sendTitle(player, titleText, subtitleText, times, warpName, secondsLeft);
+    }
+
+    /**
+     * Send a title to a player with formatting, using pre-built timings
+     *
+     * @param player       The player to send to
+     * @param titleText    Title message
+     * @param subtitleText Subtitle message
+     * @param times        Title fade-in/stay/fade-out timings
+     * @param warpName     Warp name for placeholders
+     * @param secondsLeft  Seconds left (-1 for final)
+     */
+    public static void sendTitle(Player player, String titleText, String subtitleText,
+                                  Title.Times times, String warpName, int secondsLeft) {
+        Component title = format(titleText, warpName, secondsLeft);
+        Component subtitle = format(subtitleText, warpName, secondsLeft);
+
         player.showTitle(Title.title(title, subtitle, times));
     }
+
+    /**
+     * Send a title from pre-compiled templates to a player, or to several at once
+     * through a forwarding audience (rendered only once)
+     *
+     * @param audience    The player(s) to send to
+     * @param title       Title template
+     * @param subtitle    Subtitle template
+     * @param times       Title fade-in/stay/fade-out timings
+     * @param warpName    Warp name for placeholders
+     * @param secondsLeft Seconds left (-1 for final)
+     */
+    public static void sendTitle(Audience audience, TitleTemplate title, TitleTemplate subtitle,
+                                  Title.Times times, String warpName, int secondsLeft) {
+        audience.showTitle(Title.title(
+                render(title, warpName, secondsLeft),
+                render(subtitle, warpName, secondsLeft),
+                times
+        ));
+    }
+
+    /**
+     * Render a template, serving per-warp messages without a countdown value from the cache
+     *
+     * @param template    The compiled template
+     * @param warpName    Warp name for placeholders
+     * @param secondsLeft Seconds left (-1 for final)
+     * @return Formatted Component
+     */
+    public static Component render(TitleTemplate template, String warpName, int secondsLeft) {
+        if (template.isConstant() || secondsLeft >= 0) {
+            return template.render(warpName, secondsLeft);
+        }
+
+        return RENDER_CACHE.get(new RenderKey(template, warpName == null ? "Unknown" : warpName),
+                key -> key.template().render(key.warpName(), -1));
+    }
+
+    /**
+     * Clear the rendered message cache and apply a new size limit
+     *
+     * @param maxEntries Maximum number of cached messages (0 to disable)
+     */
+    public static void resetCache(int maxEntries) {
+        RENDER_CACHE.reset(maxEntries);
+    }
+
+    /**
+     * @return Hit/miss/eviction counters for the rendered message cache since it was last reset
+     */
+    public static LruCache.Stats getCacheStats() {
+        return RENDER_CACHE.stats();
+    }
 }
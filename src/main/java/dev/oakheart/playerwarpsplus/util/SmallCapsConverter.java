@@ -1,7 +1,6 @@
 package dev.oakheart.playerwarpsplus.util;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.io.IOException;
 
 /**
  * Converts regular text to Unicode small caps characters.
@@ -26,6 +25,11 @@ import java.util.Map;
  * <p>All other letters (a-z, A-Z) have proper small caps equivalents.
  * Non-alphabetic characters (numbers, symbols, spaces, etc.) are passed through unchanged.
  *
+ * <p>Lookups go through a dense {@code char[]} table covering ASCII, so converting
+ * never boxes characters. The {@link #convert(CharSequence, StringBuilder)} and
+ * {@link #convert(CharSequence, Appendable)} overloads write straight into a
+ * caller-supplied buffer without creating intermediate strings.
+ *
  * <p>This class uses a static mapping and all methods are static.
  * The class should not be instantiated.
  */
@@ -33,64 +37,33 @@ public class SmallCapsConverter {
 
     private SmallCapsConverter() {}
 
-    private static final Map<Character, Character> SMALL_CAPS_MAP = new HashMap<>();
+    // Small caps for 'a'-'z'; 's' and 'x' have no Unicode small caps variant available
+    private static final String SMALL_CAPS_LETTERS = "ᴀʙᴄᴅᴇғɢʜɪᴊᴋʟᴍɴᴏᴘǫʀsᴛᴜᴠᴡxʏᴢ";
+
+    // Indexed by ASCII code; every other character maps to itself
+    private static final char[] TABLE = new char[128];
 
     static {
-        // Lowercase to small caps
-        SMALL_CAPS_MAP.put('a', 'ᴀ');
-        SMALL_CAPS_MAP.put('b', 'ʙ');
-        SMALL_CAPS_MAP.put('c', 'ᴄ');
-        SMALL_CAPS_MAP.put('d', 'ᴅ');
-        SMALL_CAPS_MAP.put('e', 'ᴇ');
-        SMALL_CAPS_MAP.put('f', 'ғ');
-        SMALL_CAPS_MAP.put('g', 'ɢ');
-        SMALL_CAPS_MAP.put('h', 'ʜ');
-        SMALL_CAPS_MAP.put('i', 'ɪ');
-        SMALL_CAPS_MAP.put('j', 'ᴊ');
-        SMALL_CAPS_MAP.put('k', 'ᴋ');
-        SMALL_CAPS_MAP.put('l', 'ʟ');
-        SMALL_CAPS_MAP.put('m', 'ᴍ');
-        SMALL_CAPS_MAP.put('n', 'ɴ');
-        SMALL_CAPS_MAP.put('o', 'ᴏ');
-        SMALL_CAPS_MAP.put('p', 'ᴘ');
-        SMALL_CAPS_MAP.put('q', 'ǫ');
-        SMALL_CAPS_MAP.put('r', 'ʀ');
-        SMALL_CAPS_MAP.put('s', 's'); // No Unicode small caps variant available
-        SMALL_CAPS_MAP.put('t', 'ᴛ');
-        SMALL_CAPS_MAP.put('u', 'ᴜ');
-        SMALL_CAPS_MAP.put('v', 'ᴠ');
-        SMALL_CAPS_MAP.put('w', 'ᴡ');
-        SMALL_CAPS_MAP.put('x', 'x'); // No Unicode small caps variant available
-        SMALL_CAPS_MAP.put('y', 'ʏ');
-        SMALL_CAPS_MAP.put('z', 'ᴢ');
+        for (char c = 0; c < TABLE.length; c++) {
+            TABLE[c] = c;
+        }
 
-        // Uppercase to small caps (same as lowercase)
-        SMALL_CAPS_MAP.put('A', 'ᴀ');
-        SMALL_CAPS_MAP.put('B', 'ʙ');
-        SMALL_CAPS_MAP.put('C', 'ᴄ');
-        SMALL_CAPS_MAP.put('D', 'ᴅ');
-        SMALL_CAPS_MAP.put('E', 'ᴇ');
-        SMALL_CAPS_MAP.put('F', 'ғ');
-        SMALL_CAPS_MAP.put('G', 'ɢ');
-        SMALL_CAPS_MAP.put('H', 'ʜ');
-        SMALL_CAPS_MAP.put('I', 'ɪ');
-        SMALL_CAPS_MAP.put('J', 'ᴊ');
-        SMALL_CAPS_MAP.put('K', 'ᴋ');
-        SMALL_CAPS_MAP.put('L', 'ʟ');
-        SMALL_CAPS_MAP.put('M', 'ᴍ');
-        SMALL_CAPS_MAP.put('N', 'ɴ');
-        SMALL_CAPS_MAP.put('O', 'ᴏ');
-        SMALL_CAPS_MAP.put('P', 'ᴘ');
-        SMALL_CAPS_MAP.put('Q', 'ǫ');
-        SMALL_CAPS_MAP.put('R', 'ʀ');
-        SMALL_CAPS_MAP.put('S', 's'); // No Unicode small caps variant available
-        SMALL_CAPS_MAP.put('T', 'ᴛ');
-        SMALL_CAPS_MAP.put('U', 'ᴜ');
-        SMALL_CAPS_MAP.put('V', 'ᴠ');
-        SMALL_CAPS_MAP.put('W', 'ᴡ');
-        SMALL_CAPS_MAP.put('X', 'x'); // No Unicode small caps variant available
-        SMALL_CAPS_MAP.put('Y', 'ʏ');
-        SMALL_CAPS_MAP.put('Z', 'ᴢ');
+        for (int i = 0; i < 26; i++) {
+            char smallCaps = SMALL_CAPS_LETTERS.charAt(i);
+            // Lowercase and uppercase map to the same small caps letter
+            TABLE['a' + i] = smallCaps;
+            TABLE['A' + i] = smallCaps;
+        }
+    }
+
+    /**
+     * Converts a single character to small caps
+     *
+     * @param c The character to convert
+     * @return The small caps character, or {@code c} if it has no mapping
+     */
+    public static char convert(char c) {
+        return c < TABLE.length ? TABLE[c] : c;
     }
 
     /**
@@ -104,11 +77,33 @@ public class SmallCapsConverter {
             return text;
         }
 
-        StringBuilder result = new StringBuilder();
-        for (char c : text.toCharArray()) {
-            result.append(SMALL_CAPS_MAP.getOrDefault(c, c));
+        StringBuilder result = new StringBuilder(text.length());
+        convert(text, result);
+        return result.toString();
+    }
+
+    /**
+     * Converts text to small caps, appending the result to a buffer
+     *
+     * @param text   The text to convert
+     * @param result The buffer to append to
+     */
+    public static void convert(CharSequence text, StringBuilder result) {
+        for (int i = 0; i < text.length(); i++) {
+            result.append(convert(text.charAt(i)));
         }
+    }
 
-        return result.toString();
+    /**
+     * Converts text to small caps, appending the result to any {@link Appendable}
+     *
+     * @param text   The text to convert
+     * @param result The destination to append to
+     * @throws IOException If the destination fails to accept a character
+     */
+    public static void convert(CharSequence text, Appendable result) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            result.append(convert(text.charAt(i)));
+        }
     }
 }
@@ -0,0 +1,152 @@
+package dev.oakheart.playerwarpsplus.util;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.TranslatableComponent;
+import net.kyori.adventure.text.minimessage.tag.Modifying;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
+
+import java.util.Collections;
+
+/**
+ * Table-driven character transforms exposed as MiniMessage tags.
+ *
+ * <p>Each transform is a {@link Modifying} tag, so MiniMessage applies it to the
+ * text of every component inside the tag during its normal deserialize pass.
+ * Nested formatting such as {@code <sc><bold>text</bold></sc>} and nested
+ * transform tags work without any pre-processing of the raw string.
+ *
+ * <p>Tags:
+ * <ul>
+ *   <li>&lt;smallcaps&gt; / &lt;sc&gt; - Unicode small caps (ᴛᴇxᴛ)</li>
+ *   <li>&lt;superscript&gt; / &lt;sup&gt; - Unicode superscript (ᵗᵉˣᵗ)</li>
+ *   <li>&lt;fullwidth&gt; / &lt;fw&gt; - Fullwidth forms (ｔｅｘｔ)</li>
+ * </ul>
+ *
+ * <p>Lookups use a dense {@code char[]} table covering ASCII; characters without
+ * a mapping are passed through unchanged. Placeholder slot components of a
+ * {@link TitleTemplate} are tagged with the transform instead, so the value
+ * filled in later is transformed too.
+ */
+public enum TextTransform implements Modifying {
+
+    SMALLCAPS(smallCapsTable(), "smallcaps", "sc"),
+    SUPERSCRIPT(superscriptTable(), "superscript", "sup"),
+    FULLWIDTH(fullwidthTable(), "fullwidth", "fw");
+
+    private final char[] table;
+    private final String[] tagNames;
+
+    TextTransform(char[] table, String... tagNames) {
+        this.table = table;
+        this.tagNames = tagNames;
+    }
+
+    /**
+     * @return A resolver registering every transform under all of its tag names
+     */
+    public static TagResolver resolver() {
+        TagResolver.Builder builder = TagResolver.builder();
+        for (TextTransform transform : values()) {
+            for (String name : transform.tagNames) {
+                builder.tag(name, transform);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Transform a single character
+     *
+     * @param c The character to transform
+     * @return The transformed character, or {@code c} if it has no mapping
+     */
+    public char apply(char c) {
+        return c < table.length ? table[c] : c;
+    }
+
+    /**
+     * Transform text, appending the result to a buffer
+     *
+     * @param text   The text to transform
+     * @param result The buffer to append to
+     */
+    public void apply(CharSequence text, StringBuilder result) {
+        for (int i = 0; i < text.length(); i++) {
+            result.append(apply(text.charAt(i)));
+        }
+    }
+
+    /**
+     * Transform text
+     *
+     * @param text The text to transform
+     * @return The transformed text
+     */
+    public String apply(String text) {
+        StringBuilder result = new StringBuilder(text.length());
+        apply(text, result);
+        return result.toString();
+    }
+
+    @Override
+    public Component apply(Component current, int depth) {
+        // MiniMessage re-appends the (transformed) children itself, so return this node without them
+        if (current instanceof TextComponent text && !text.content().isEmpty()) {
+            return text.content(apply(text.content())).children(Collections.emptyList());
+        }
+        if (TitleTemplate.isUntransformedSlot(current)) {
+            return TitleTemplate.withTransform((TranslatableComponent) current, this).children(Collections.emptyList());
+        }
+        return current.children(Collections.emptyList());
+    }
+
+    private static char[] identityTable() {
+        char[] table = new char[128];
+        for (char c = 0; c < table.length; c++) {
+            table[c] = c;
+        }
+        return table;
+    }
+
+    private static char[] smallCapsTable() {
+        char[] table = identityTable();
+        for (char c = 0; c < table.length; c++) {
+            table[c] = SmallCapsConverter.convert(c);
+        }
+        return table;
+    }
+
+    private static char[] superscriptTable() {
+        char[] table = identityTable();
+        // 'q' has no superscript form; uppercase letters without one use the lowercase form
+        String lower = "ᵃᵇᶜᵈᵉᶠᵍʰⁱʲᵏˡᵐⁿᵒᵖqʳˢᵗᵘᵛʷˣʸᶻ";
+        String upper = "ᴬᴮᶜᴰᴱᶠᴳᴴᴵᴶᴷᴸᴹᴺᴼᴾqᴿˢᵀᵁⱽᵂˣʸᶻ";
+        for (int i = 0; i < 26; i++) {
+            table['a' + i] = lower.charAt(i);
+            table['A' + i] = upper.charAt(i);
+        }
+
+        String digits = "⁰¹²³⁴⁵⁶⁷⁸⁹";
+        for (int i = 0; i < 10; i++) {
+            table['0' + i] = digits.charAt(i);
+        }
+
+        table['+'] = '⁺';
+        table['-'] = '⁻';
+        table['='] = '⁼';
+        table['('] = '⁽';
+        table[')'] = '⁾';
+        return table;
+    }
+
+    private static char[] fullwidthTable() {
+        char[] table = identityTable();
+        // Printable ASCII maps onto the Halfwidth and Fullwidth Forms block
+        for (char c = '!'; c <= '~'; c++) {
+            table[c] = (char) (c + 0xFEE0);
+        }
+        table[' '] = '\u3000'; // Ideographic space
+        return table;
+    }
+}
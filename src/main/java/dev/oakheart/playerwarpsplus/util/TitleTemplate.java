@@ -0,0 +1,223 @@
+package dev.oakheart.playerwarpsplus.util;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TranslatableComponent;
+import net.kyori.adventure.text.minimessage.tag.Tag;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A title or subtitle message parsed once at config load.
+ *
+ * <p>Messages without placeholders are rendered to a finished {@link Component}
+ * up front. Messages with placeholders are parsed with each placeholder replaced
+ * by an internal tag inserting a marker component; rendering then walks the
+ * parsed tree and swaps the markers for the actual values, so no MiniMessage
+ * parsing happens per player. The message text itself is never scanned for
+ * markers, so any character (including resource-pack glyphs) renders as is.
+ *
+ * <p>Supported placeholders:
+ * <ul>
+ *   <li>%warp% or %warp_display% - The warp display name</li>
+ *   <li>%seconds% - Seconds remaining in countdown</li>
+ * </ul>
+ *
+ * <p>A placeholder inside a text transform tag such as &lt;sc&gt; is filled with
+ * the transformed form of its value (see {@link TextTransform}). Placeholders
+ * used inside a tag argument (e.g. a hover or click action) cannot be filled at
+ * component level, so such messages fall back to {@link MessageFormatter#format}
+ * on every render.
+ */
+public final class TitleTemplate {
+
+    // Placeholders become <pwp_slot:warp> / <pwp_slot:seconds> tags, each inserting a translatable
+    // component keyed "playerwarpsplus.slot.<name>". A TextTransform around the slot appends
+    // "/<TRANSFORM>" to the key, so the value filled in later is transformed too
+    private static final String SLOT_TAG = "pwp_slot";
+    private static final String SLOT_KEY_PREFIX = "playerwarpsplus.slot.";
+    private static final String SLOT_WARP = "warp";
+    private static final String SLOT_SECONDS = "seconds";
+    private static final char TRANSFORM_SEPARATOR = '/';
+
+    private static final TagResolver SLOT_RESOLVER = TagResolver.resolver(SLOT_TAG, (args, context) ->
+            Tag.selfClosingInserting(Component.translatable(
+                    SLOT_KEY_PREFIX + args.popOr("Slot name expected").value())));
+
+    private static final TextTransform[] TRANSFORMS = TextTransform.values();
+
+    private static final String[] PLACEHOLDERS = {"%warp_display%", "%warp%", "%seconds%"};
+
+    private final String raw;
+    private final Component parsed;
+    private final boolean constant;
+
+    private TitleTemplate(String raw, Component parsed, boolean constant) {
+        this.raw = raw;
+        this.parsed = parsed;
+        this.constant = constant;
+    }
+
+    /**
+     * Parse a message from config into a reusable template
+     *
+     * @param message The raw message from config
+     * @return The compiled template
+     */
+    public static TitleTemplate compile(String message) {
+        if (message == null || message.isEmpty()) {
+            return new TitleTemplate(message, Component.empty(), true);
+        }
+
+        if (!containsPlaceholder(message)) {
+            return new TitleTemplate(message, MessageFormatter.format(message, "", -1), true);
+        }
+
+        if (hasPlaceholderInsideTag(message)) {
+            // Rendered through the full formatter every time
+            return new TitleTemplate(message, null, false);
+        }
+
+        String marked = message
+                .replace("%warp_display%", slotTag(SLOT_WARP))
+                .replace("%warp%", slotTag(SLOT_WARP))
+                .replace("%seconds%", slotTag(SLOT_SECONDS));
+
+        return new TitleTemplate(message, MessageFormatter.parse(marked, SLOT_RESOLVER), false);
+    }
+
+    /**
+     * @return true if this template renders to the same component for every warp
+     */
+    public boolean isConstant() {
+        return constant;
+    }
+
+    /**
+     * @return The message this template was compiled from
+     */
+    public String getRaw() {
+        return raw;
+    }
+
+    /**
+     * Render the template with placeholder values
+     *
+     * @param warpName    The warp display name
+     * @param secondsLeft Seconds left in countdown (-1 for final message)
+     * @return Formatted Component
+     */
+    public Component render(String warpName, int secondsLeft) {
+        if (constant) {
+            return parsed;
+        }
+
+        if (parsed == null) {
+            return MessageFormatter.format(raw, warpName, secondsLeft);
+        }
+
+        if (warpName == null) {
+            warpName = "Unknown";
+        }
+
+        // Values are inserted as plain text, so the warp name needs no escaping
+        // Matches MessageFormatter.format, which leaves %seconds% alone outside the countdown
+        String seconds = secondsLeft >= 0 ? String.valueOf(secondsLeft) : "%seconds%";
+        return fill(parsed, warpName, seconds);
+    }
+
+    /**
+     * Recursively replace slot markers, copying only the parts of the tree that change
+     */
+    private static Component fill(Component component, String warpName, String seconds) {
+        Component result = component;
+
+        if (component instanceof TranslatableComponent marker && isSlot(marker)) {
+            result = Component.text(slotValue(marker.key(), warpName, seconds), marker.style());
+        }
+
+        List<Component> children = component.children();
+        List<Component> filledChildren = null;
+        for (int i = 0; i < children.size(); i++) {
+            Component child = children.get(i);
+            Component filled = fill(child, warpName, seconds);
+            if (filled != child) {
+                if (filledChildren == null) {
+                    filledChildren = new ArrayList<>(children);
+                }
+                filledChildren.set(i, filled);
+            }
+        }
+
+        if (filledChildren != null) {
+            result = result.children(filledChildren);
+        }
+        return result;
+    }
+
+    private static String slotTag(String slot) {
+        return "<" + SLOT_TAG + ":" + slot + ">";
+    }
+
+    private static boolean isSlot(TranslatableComponent component) {
+        return component.key().startsWith(SLOT_KEY_PREFIX);
+    }
+
+    /**
+     * Check whether a component is a placeholder slot that no transform has been applied to yet
+     */
+    static boolean isUntransformedSlot(Component component) {
+        return component instanceof TranslatableComponent marker && isSlot(marker)
+                && marker.key().indexOf(TRANSFORM_SEPARATOR) < 0;
+    }
+
+    /**
+     * Tag a placeholder slot with the transform to apply to its value when filled
+     */
+    static TranslatableComponent withTransform(TranslatableComponent slot, TextTransform transform) {
+        return slot.key(slot.key() + TRANSFORM_SEPARATOR + transform.name());
+    }
+
+    private static String slotValue(String key, String warpName, String seconds) {
+        String value = key.startsWith(SLOT_SECONDS, SLOT_KEY_PREFIX.length()) ? seconds : warpName;
+        int separator = key.indexOf(TRANSFORM_SEPARATOR);
+        if (separator < 0) {
+            return value;
+        }
+
+        for (TextTransform transform : TRANSFORMS) {
+            if (key.startsWith(transform.name(), separator + 1)) {
+                return transform.apply(value);
+            }
+        }
+        return value;
+    }
+
+    private static boolean containsPlaceholder(String message) {
+        for (String placeholder : PLACEHOLDERS) {
+            if (message.contains(placeholder)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Check whether any placeholder appears between angle brackets, i.e. as part of a tag
+     */
+    private static boolean hasPlaceholderInsideTag(String message) {
+        boolean inTag = false;
+        for (int i = 0; i < message.length(); i++) {
+            char c = message.charAt(i);
+            if (c == '<') {
+                inTag = true;
+            } else if (c == '>') {
+                inTag = false;
+            } else if (c == '%' && inTag) {
+                for (String placeholder : PLACEHOLDERS) {
+                    if (message.startsWith(placeholder, i)) return true;
+                }
+            }
+        }
+        return false;
+    }
+}